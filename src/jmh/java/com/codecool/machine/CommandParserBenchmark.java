@@ -0,0 +1,37 @@
+package com.codecool.machine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandParserBenchmark {
+    @Param({"insert 2500 250", "select chips", "insert 25x 250", "select gum"})
+    String line;
+
+    private final CommandParser parser = new CommandParser();
+    private final Command command = new Command();
+    private final StringBuilder buffer = new StringBuilder();
+
+    @Benchmark
+    public CommandError parse() {
+        buffer.setLength(0);
+        buffer.append(line);
+        parser.parse(buffer, command);
+        return command.error();
+    }
+}
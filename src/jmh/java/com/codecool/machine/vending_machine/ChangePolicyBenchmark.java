@@ -0,0 +1,79 @@
+package com.codecool.machine.vending_machine;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ChangePolicyBenchmark {
+    @Param({"FIRST_FOUND", "FEWEST_COINS", "BALANCED"})
+    String policy;
+
+    @Param({"2/4/4", "4/1/8"})
+    String coinFloat;
+
+    @Param({"standard", "35/65"})
+    String prices;
+
+    Scenario scenario;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class LostSales {
+        public long cantMakeChange;
+        public long soldOut;
+        public long sales;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            cantMakeChange = soldOut = sales = 0;
+        }
+    }
+
+    @Setup
+    public void scenario() {
+        String[] levels = coinFloat.split("/");
+        int quarters = Integer.parseInt(levels[0]);
+        int dimes = Integer.parseInt(levels[1]);
+        int nickels = Integer.parseInt(levels[2]);
+        Catalog catalog = prices.equals("standard") ? Catalog.standard() : Catalog.parse(
+                "coin NICKEL 5 500 50 5 2\ncoin DIME 10 1000 100 10 4\ncoin QUARTER 25 2500 250 25 10\n"
+                        + "product GUM 35 1\nproduct CANDY 65 2\n");
+        Scenario base = Scenario.of(17, catalog).weeks(52).customersPerHour(4).restock(250, 168)
+                .coinFloat(quarters, dimes, nickels).payments(0.2, 0.05);
+        switch (policy) {
+            case "FIRST_FOUND" -> scenario = base.changePolicy(ChangePolicy.firstFound());
+            case "FEWEST_COINS" -> scenario = base.changePolicy(ChangePolicy.fewestCoins());
+            case "BALANCED" -> scenario = base.changePolicy(ChangePolicy.balanced(
+                    Map.of(Coin.QUARTER, quarters, Coin.DIME, dimes, Coin.NICKEL, nickels)));
+            default -> throw new IllegalArgumentException(policy);
+        }
+    }
+
+    @Benchmark
+    public SimulationReport machineYear(LostSales lost) {
+        SimulationReport report = Simulator.run(scenario);
+        lost.cantMakeChange += report.lostToCantMakeChange();
+        lost.soldOut += report.lostToSoldOut();
+        lost.sales += report.sales();
+        return report;
+    }
+}
@@ -0,0 +1,37 @@
+package com.codecool.machine.vending_machine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoinFactoryBenchmark {
+    private final CoinFactory coinFactory = Catalog.standard().coinFactory();
+    private int quarterWeight = 2500;
+    private int quarterSize = 250;
+    private int pennyWeight = 250;
+    private int pennySize = 19;
+
+    @Benchmark
+    public int validCoin() {
+        return coinFactory.coinId(quarterWeight, quarterSize);
+    }
+
+    @Benchmark
+    public int invalidCoin() {
+        return coinFactory.coinId(pennyWeight, pennySize);
+    }
+}
@@ -0,0 +1,58 @@
+package com.codecool.machine.vending_machine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FleetBenchmark {
+    static final int MACHINES = 1_000_000;
+
+    Fleet fleet;
+
+    @Setup
+    public void populate() {
+        Random random = new Random(11);
+        VendingMachine template = new VendingMachine();
+        fleet = new Fleet(MACHINES);
+        for (int id = 0; id < MACHINES; id++) {
+            fleet.add(template);
+            fleet.setCoins(id, Coin.QUARTER, random.nextInt(20));
+            fleet.setCoins(id, Coin.DIME, random.nextInt(20));
+            fleet.setCoins(id, Coin.NICKEL, random.nextInt(20));
+            for (Product product : Product.values()) {
+                fleet.setProducts(id, product, random.nextInt(10));
+            }
+        }
+    }
+
+    @Benchmark
+    public long totalCash() {
+        return fleet.totalCash(Coin.QUARTER);
+    }
+
+    @Benchmark
+    public int[] soldOut() {
+        return fleet.soldOut(Product.COLA);
+    }
+
+    @Benchmark
+    public int[] cantMakeChange() {
+        return fleet.cantMakeChange(Product.CANDY.cost, 100);
+    }
+}
@@ -0,0 +1,91 @@
+package com.codecool.machine.vending_machine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LedgerBenchmark {
+    private static final Coin[] PAYMENT = {Coin.QUARTER, Coin.QUARTER, Coin.QUARTER, Coin.DIME, Coin.NICKEL};
+
+    @State(Scope.Thread)
+    public static class HashMaps {
+        final Map<Product, Integer> products = new HashMap<>();
+        final Map<Product, Integer> productTray = new HashMap<>();
+        final Map<Coin, Integer> machineCoins = new HashMap<>();
+        final Map<Coin, Integer> insertedCoins = new HashMap<>();
+        final Map<Coin, Integer> changeTray = new HashMap<>();
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            for (Product product : Product.values()) products.put(product, 1_000_000);
+            for (Coin coin : new Coin[]{Coin.QUARTER, Coin.DIME, Coin.NICKEL}) machineCoins.put(coin, 1000);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Inventories {
+        final Catalog catalog = Catalog.standard();
+        final int[] payment = new int[PAYMENT.length];
+        final int candy = catalog.productId(Product.CANDY);
+        final int quarter = catalog.coinId(Coin.QUARTER);
+        final Inventory products = new Inventory(catalog.productCount());
+        final Inventory productTray = new Inventory(catalog.productCount());
+        final Inventory machineCoins = new Inventory(catalog.coinCount() + 1);
+        final Inventory insertedCoins = new Inventory(catalog.coinCount() + 1);
+        final Inventory changeTray = new Inventory(catalog.coinCount() + 1);
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            for (int i = 0; i < payment.length; i++) payment[i] = catalog.coinId(PAYMENT[i]);
+            for (int product = 0; product < catalog.productCount(); product++) products.set(product, 1_000_000);
+            for (int coin = 0; coin < catalog.coinCount(); coin++) machineCoins.set(coin, 1000);
+        }
+    }
+
+    @Benchmark
+    public int hashMapCycle(HashMaps ledgers) {
+        for (Coin coin : PAYMENT) ledgers.insertedCoins.merge(coin, 1, Integer::sum);
+        ledgers.products.merge(Product.CANDY, -1, Integer::sum);
+        ledgers.productTray.merge(Product.CANDY, 1, Integer::sum);
+        ledgers.insertedCoins.forEach((coin, count) -> ledgers.machineCoins.merge(coin, count, Integer::sum));
+        ledgers.insertedCoins.clear();
+        ledgers.machineCoins.merge(Coin.QUARTER, -1, Integer::sum);
+        ledgers.changeTray.merge(Coin.QUARTER, 1, Integer::sum);
+        int taken = ledgers.productTray.get(Product.CANDY) + ledgers.changeTray.get(Coin.QUARTER);
+        ledgers.productTray.clear();
+        ledgers.changeTray.clear();
+        return taken;
+    }
+
+    @Benchmark
+    public int inventoryCycle(Inventories ledgers) {
+        for (int coin : ledgers.payment) ledgers.insertedCoins.add(coin, 1);
+        ledgers.products.add(ledgers.candy, -1);
+        ledgers.productTray.add(ledgers.candy, 1);
+        ledgers.machineCoins.addAll(ledgers.insertedCoins);
+        ledgers.insertedCoins.clear();
+        ledgers.machineCoins.add(ledgers.quarter, -1);
+        ledgers.changeTray.add(ledgers.quarter, 1);
+        int taken = ledgers.productTray.get(ledgers.candy) + ledgers.changeTray.get(ledgers.quarter);
+        ledgers.productTray.clear();
+        ledgers.changeTray.clear();
+        return taken;
+    }
+}
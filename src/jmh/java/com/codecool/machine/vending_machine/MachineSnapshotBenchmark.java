@@ -0,0 +1,64 @@
+package com.codecool.machine.vending_machine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class MachineSnapshotBenchmark {
+    static final int MACHINES = 1_000_000;
+
+    List<VendingMachine> machines;
+    Path file;
+
+    @Setup
+    public void populate() throws IOException {
+        Random random = new Random(16);
+        machines = new ArrayList<>(MACHINES);
+        for (int i = 0; i < MACHINES; i++) {
+            VendingMachine machine = new VendingMachine();
+            machine.getMachineCoins().put(Coin.QUARTER, random.nextInt(20));
+            machine.getMachineCoins().put(Coin.DIME, random.nextInt(20));
+            machine.getProducts().put(Product.COLA, random.nextInt(10));
+            machines.add(machine);
+        }
+        file = Files.createTempFile("fleet", ".snapshot");
+        MachineSnapshot.saveAll(file, machines);
+    }
+
+    @TearDown
+    public void delete() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void saveFleet() throws IOException {
+        MachineSnapshot.saveAll(file, machines);
+    }
+
+    @Benchmark
+    public void loadFleet() throws IOException {
+        MachineSnapshot.loadAll(file, machines);
+    }
+}
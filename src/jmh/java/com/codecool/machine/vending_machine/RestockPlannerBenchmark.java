@@ -0,0 +1,84 @@
+package com.codecool.machine.vending_machine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RestockPlannerBenchmark {
+    static final int MACHINES = 10_000;
+    static final Map<Coin, Integer> FLOAT = Map.of(Coin.QUARTER, 40, Coin.DIME, 40, Coin.NICKEL, 40);
+
+    @State(Scope.Thread)
+    public static class Selling {
+        @Param({"off", "on"})
+        String planner;
+
+        VendingMachine machine;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            machine = VendingMachineBenchmark.stockedMachine(new KnapsackChangeStrategy(), 1000);
+            if (planner.equals("on")) new RestockPlanner(10, FLOAT).add(machine);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Route {
+        RestockPlanner planner;
+
+        @Setup
+        public void setUp() {
+            Random random = new Random(11);
+            planner = new RestockPlanner(10, FLOAT);
+            for (int id = 0; id < MACHINES; id++) {
+                VendingMachine machine = new VendingMachine();
+                for (Product product : Product.values()) machine.getProducts().put(product, random.nextInt(10));
+                machine.getMachineCoins().put(Coin.QUARTER, random.nextInt(20));
+                machine.getMachineCoins().put(Coin.DIME, random.nextInt(20));
+                machine.getMachineCoins().put(Coin.NICKEL, random.nextInt(20));
+                planner.add(machine);
+            }
+        }
+    }
+
+    @Benchmark
+    public MachineState purchaseCycle(Selling selling) {
+        VendingMachine machine = selling.machine;
+        machine.insertCoin(2500, 250);
+        machine.insertCoin(2500, 250);
+        machine.insertCoin(2500, 250);
+        machine.insertCoin(1000, 100);
+        machine.insertCoin(500, 50);
+        machine.selectProduct(Product.CANDY);
+        MachineState state = machine.getState();
+        machine.resetState();
+        machine.returnCoins();
+        machine.takeProduct();
+        machine.takeChange();
+        return state;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public RestockPlan planFleet(Route route) {
+        return route.planner.plan(24);
+    }
+}
@@ -0,0 +1,78 @@
+package com.codecool.machine.vending_machine;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 1)
+@Fork(value = 1, jvmArgs = "-Xmx512m")
+public class SessionBenchmark {
+    static final int SESSIONS = 100_000;
+    static final int THINK_MILLIS = 200;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long sold;
+        public long heapBytesPerIdleSession;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            sold = heapBytesPerIdleSession = 0;
+        }
+    }
+
+    @Benchmark
+    public long thinkingCustomers(Footprint footprint) throws Exception {
+        ConcurrentVendingMachine machine = new ConcurrentVendingMachine();
+        machine.stockProduct(Product.CHIPS, SESSIONS);
+        machine.stockCoins(Coin.QUARTER, SESSIONS);
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        CountDownLatch allWaiting = new CountDownLatch(SESSIONS);
+        CountDownLatch measured = new CountDownLatch(1);
+
+        System.gc();
+        long before = memory.getHeapMemoryUsage().getUsed();
+        try (SessionExecutor executor = new SessionExecutor(machine)) {
+            for (int i = 0; i < SESSIONS; i++) {
+                executor.submit(session -> {
+                    session.insertCoin(2500, 250);
+                    allWaiting.countDown();
+                    measured.await();
+                    Thread.sleep(THINK_MILLIS);
+                    session.insertCoin(2500, 250);
+                    Thread.sleep(THINK_MILLIS);
+                    session.insertCoin(2500, 250);
+                    session.selectProduct(Product.CHIPS);
+                    session.takeProduct();
+                    session.takeChange();
+                    return null;
+                });
+            }
+            allWaiting.await();
+            System.gc();
+            footprint.heapBytesPerIdleSession = (memory.getHeapMemoryUsage().getUsed() - before) / SESSIONS;
+            measured.countDown();
+        }
+        footprint.sold = SESSIONS - machine.getProductCount(Product.CHIPS);
+        return footprint.sold;
+    }
+}
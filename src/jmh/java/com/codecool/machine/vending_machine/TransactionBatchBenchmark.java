@@ -0,0 +1,69 @@
+package com.codecool.machine.vending_machine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionBatchBenchmark {
+    static final int OPERATIONS = 1 << 20;
+
+    long[] operations;
+    TransactionBatch.Result result;
+    VendingMachine machine;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        long[] cycle = {
+                TransactionBatch.insert(2500, 250),
+                TransactionBatch.insert(2500, 250),
+                TransactionBatch.insert(2500, 250),
+                TransactionBatch.insert(1000, 100),
+                TransactionBatch.insert(500, 50),
+                TransactionBatch.select(Product.CANDY),
+                TransactionBatch.takeProduct(),
+                TransactionBatch.takeChange(),
+                TransactionBatch.insert(2500, 250),
+                TransactionBatch.insert(600, 40),
+                TransactionBatch.returnCoins(),
+                TransactionBatch.takeChange(),
+                TransactionBatch.insert(2500, 250),
+                TransactionBatch.insert(2500, 250),
+                TransactionBatch.select(Product.COLA),
+                TransactionBatch.returnCoins()
+        };
+        operations = new long[OPERATIONS];
+        for (int i = 0; i < OPERATIONS; i++) {
+            operations[i] = cycle[i % cycle.length];
+        }
+        result = new TransactionBatch.Result(OPERATIONS);
+    }
+
+    @Setup(Level.Iteration)
+    public void stock() {
+        machine = VendingMachineBenchmark.stockedMachine(new KnapsackChangeStrategy(), 1000);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public TransactionBatch.Result replay() {
+        TransactionBatch.apply(machine, operations, 0, OPERATIONS, result);
+        return result;
+    }
+}
@@ -0,0 +1,234 @@
+package com.codecool.machine.vending_machine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VendingMachineBenchmark {
+
+    @State(Scope.Thread)
+    public static class Stocked {
+        @Param({"off", "on"})
+        String metrics;
+
+        @Param({"off", "inline", "pool"})
+        String events;
+
+        @Param({"off", "on"})
+        String analytics;
+
+        VendingMachine machine;
+        MachineEventPublisher publisher;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            machine = stockedMachine(new KnapsackChangeStrategy(), 1000);
+            if (metrics.equals("on")) new StripedMachineMetrics().attach(machine);
+            if (analytics.equals("on")) SalesAnalytics.attach(machine);
+            if (!events.equals("off")) {
+                publisher = events.equals("inline")
+                        ? MachineEventPublisher.attach(machine, Runnable::run, MachineEventPublisher.DEFAULT_CAPACITY)
+                        : MachineEventPublisher.attach(machine);
+                publisher.subscribe(new Flow.Subscriber<>() {
+                    @Override
+                    public void onSubscribe(Flow.Subscription subscription) {
+                        subscription.request(Long.MAX_VALUE);
+                    }
+
+                    @Override
+                    public void onNext(MachineEvent event) {
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                    }
+
+                    @Override
+                    public void onComplete() {
+                    }
+                });
+            }
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() {
+            if (publisher != null) publisher.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Empty {
+        VendingMachine machine;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            machine = stockedMachine(new KnapsackChangeStrategy(), 0);
+            for (int i = 0; i < 4; i++) {
+                machine.insertCoin(2500, 250);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cycle {
+        @Param({"10", "1000", "100000"})
+        int coins;
+
+        @Param({"knapsack", "exhaustive"})
+        String strategy;
+
+        VendingMachine machine;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            ChangeStrategy changeStrategy = strategy.equals("knapsack")
+                    ? new KnapsackChangeStrategy()
+                    : new ExhaustiveChangeStrategy();
+            machine = stockedMachine(changeStrategy, coins);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Basket {
+        @Param({"knapsack", "exhaustive"})
+        String strategy;
+
+        VendingMachine machine;
+        final Cart cart = new Cart().add(Product.COLA).add(Product.CANDY).add(Product.CHIPS);
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            ChangeStrategy changeStrategy = strategy.equals("knapsack")
+                    ? new KnapsackChangeStrategy()
+                    : new ExhaustiveChangeStrategy();
+            machine = stockedMachine(changeStrategy, 1000);
+        }
+    }
+
+    static VendingMachine stockedMachine(ChangeStrategy changeStrategy, int coins) {
+        VendingMachine machine = new VendingMachine(changeStrategy);
+        for (Coin coin : new Coin[]{Coin.QUARTER, Coin.DIME, Coin.NICKEL}) {
+            machine.getMachineCoins().put(coin, coins);
+        }
+        for (Product product : Product.values()) {
+            machine.getProducts().put(product, Integer.MAX_VALUE);
+        }
+        return machine;
+    }
+
+    @Benchmark
+    public int insertCoin(Stocked stocked) {
+        VendingMachine machine = stocked.machine;
+        machine.insertCoin(2500, 250);
+        int value = machine.getInsertedValue();
+        machine.returnCoins();
+        machine.takeChange();
+        return value;
+    }
+
+    @Benchmark
+    public MachineState selectWithoutChange(Stocked stocked) {
+        VendingMachine machine = stocked.machine;
+        machine.insertCoin(2500, 250);
+        machine.insertCoin(2500, 250);
+        machine.selectProduct(Product.CHIPS);
+        machine.takeProduct();
+        return machine.getState();
+    }
+
+    @Benchmark
+    public MachineState selectWithChange(Stocked stocked) {
+        VendingMachine machine = stocked.machine;
+        machine.insertCoin(2500, 250);
+        machine.insertCoin(2500, 250);
+        machine.insertCoin(2500, 250);
+        machine.selectProduct(Product.CHIPS);
+        machine.takeProduct();
+        machine.takeChange();
+        return machine.getState();
+    }
+
+    @Benchmark
+    public MachineState selectCantMakeChange(Empty empty) {
+        VendingMachine machine = empty.machine;
+        machine.selectProduct(Product.CHIPS);
+        MachineState state = machine.getState();
+        machine.resetState();
+        return state;
+    }
+
+    @Benchmark
+    public MachineState purchaseCycle(Cycle cycle) {
+        VendingMachine machine = cycle.machine;
+        machine.insertCoin(2500, 250);
+        machine.insertCoin(2500, 250);
+        machine.insertCoin(2500, 250);
+        machine.insertCoin(1000, 100);
+        machine.insertCoin(500, 50);
+        machine.selectProduct(Product.CANDY);
+        MachineState state = machine.getState();
+        machine.resetState();
+        machine.returnCoins();
+        machine.takeProduct();
+        machine.takeChange();
+        return state;
+    }
+
+    @Benchmark
+    public MachineState cartOfThree(Basket basket) {
+        VendingMachine machine = basket.machine;
+        for (int i = 0; i < 8; i++) machine.insertCoin(2500, 250);
+        machine.insertCoin(1000, 100);
+        machine.insertCoin(1000, 100);
+        machine.insertCoin(500, 50);
+        machine.selectProducts(basket.cart);
+        MachineState state = machine.getState();
+        machine.resetState();
+        machine.returnCoins();
+        machine.takeProduct();
+        machine.takeChange();
+        return state;
+    }
+
+    @Benchmark
+    public MachineState threeSelects(Basket basket) {
+        VendingMachine machine = basket.machine;
+        for (int i = 0; i < 4; i++) machine.insertCoin(2500, 250);
+        machine.selectProduct(Product.COLA);
+        machine.resetState();
+        machine.insertCoin(2500, 250);
+        machine.insertCoin(2500, 250);
+        machine.insertCoin(1000, 100);
+        machine.insertCoin(1000, 100);
+        machine.insertCoin(500, 50);
+        machine.selectProduct(Product.CANDY);
+        machine.resetState();
+        machine.insertCoin(2500, 250);
+        machine.insertCoin(2500, 250);
+        machine.selectProduct(Product.CHIPS);
+        MachineState state = machine.getState();
+        machine.resetState();
+        machine.returnCoins();
+        machine.takeProduct();
+        machine.takeChange();
+        return state;
+    }
+}
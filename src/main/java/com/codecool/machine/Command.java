@@ -0,0 +1,67 @@
+package com.codecool.machine;
+
+import com.codecool.machine.vending_machine.Catalog;
+import com.codecool.machine.vending_machine.Product;
+
+public class Command {
+    public enum Type {
+        EXIT, SELECT, TAKE_PRODUCT, TAKE_CHANGE, RETURN, INSERT, INVALID
+    }
+
+    Type type = Type.INVALID;
+    CommandError error = CommandError.NONE;
+    Catalog catalog;
+    int productId = -1;
+    int weight;
+    int size;
+    CharSequence source;
+    int tokenStart;
+    int tokenEnd;
+
+    public Type type() {
+        return type;
+    }
+
+    public CommandError error() {
+        return error;
+    }
+
+    public int productId() {
+        return productId;
+    }
+
+    public Product product() {
+        return catalog.product(productId);
+    }
+
+    public int weight() {
+        return weight;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String errorMessage() {
+        switch (error) {
+            case UNKNOWN_PRODUCT -> {
+                StringBuilder message = new StringBuilder(error.message)
+                        .append(Product.class.getCanonicalName()).append('.');
+                for (int i = tokenStart; i < tokenEnd; i++) {
+                    message.append(Character.toUpperCase(Character.toLowerCase(source.charAt(i))));
+                }
+                return message.toString();
+            }
+            case INVALID_NUMBER -> {
+                StringBuilder message = new StringBuilder(error.message).append('"');
+                for (int i = tokenStart; i < tokenEnd; i++) {
+                    message.append(Character.toLowerCase(source.charAt(i)));
+                }
+                return message.append('"').toString();
+            }
+            default -> {
+                return error.message;
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.codecool.machine;
+
+public enum CommandError {
+    NONE(""),
+    EMPTY_INPUT("Empty input"),
+    INCORRECT_COMMAND("Incorrect command"),
+    SELECT_USAGE("To buy cola type 'select cola'"),
+    TAKE_USAGE("Type 'take product' or 'take change'"),
+    INSERT_USAGE("To insert quarter type 'insert 2500 250'"),
+    UNKNOWN_PRODUCT("No enum constant "),
+    INVALID_NUMBER("For input string: ");
+
+    final String message;
+
+    CommandError(String message) {
+        this.message = message;
+    }
+}
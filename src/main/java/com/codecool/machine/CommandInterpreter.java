@@ -0,0 +1,41 @@
+package com.codecool.machine;
+
+import com.codecool.machine.vending_machine.Display;
+import com.codecool.machine.vending_machine.VendingMachine;
+
+public class CommandInterpreter {
+    private final VendingMachine machine;
+    private final Display display;
+    private final CommandParser parser;
+    private final Command command = new Command();
+
+    public CommandInterpreter(VendingMachine machine, Display display) {
+        this.machine = machine;
+        this.display = display;
+        parser = new CommandParser(machine.catalog());
+    }
+
+    public boolean process(CharSequence line) {
+        if (!parser.parse(line, command)) {
+            display.displayMessage(command.errorMessage());
+            return true;
+        }
+        switch (command.type()) {
+            case EXIT -> {
+                return false;
+            }
+            case SELECT -> machine.selectProduct(command.productId());
+            case TAKE_PRODUCT -> {
+                display.displayProductTray();
+                machine.takeProduct();
+            }
+            case TAKE_CHANGE -> {
+                display.displayChangeTray();
+                machine.takeChange();
+            }
+            case RETURN -> machine.returnCoins();
+            case INSERT -> machine.insertCoin(command.weight(), command.size());
+        }
+        return true;
+    }
+}
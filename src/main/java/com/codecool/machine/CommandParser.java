@@ -0,0 +1,144 @@
+package com.codecool.machine;
+
+import com.codecool.machine.vending_machine.Catalog;
+
+public class CommandParser {
+    private static final int MAX_TOKENS = 3;
+
+    private final Catalog catalog;
+    private final int[] starts = new int[MAX_TOKENS];
+    private final int[] ends = new int[MAX_TOKENS];
+    private int parsed;
+
+    public CommandParser() {
+        this(Catalog.standard());
+    }
+
+    public CommandParser(Catalog catalog) {
+        this.catalog = catalog;
+    }
+
+    public boolean parse(CharSequence line, Command command) {
+        command.source = line;
+        command.catalog = catalog;
+        command.error = CommandError.NONE;
+        command.type = Command.Type.INVALID;
+
+        int tokens = tokenize(line);
+        if (tokens == 0) return fail(command, CommandError.EMPTY_INPUT);
+
+        if (tokenEquals(line, 0, "exit")) {
+            command.type = Command.Type.EXIT;
+        } else if (tokenEquals(line, 0, "select")) {
+            if (tokens < 2) return fail(command, CommandError.SELECT_USAGE);
+            command.productId = product(line);
+            if (command.productId < 0) return fail(command, CommandError.UNKNOWN_PRODUCT, 1);
+            command.type = Command.Type.SELECT;
+        } else if (tokenEquals(line, 0, "take")) {
+            if (tokens < 2) return fail(command, CommandError.TAKE_USAGE);
+            if (tokenEquals(line, 1, "product")) command.type = Command.Type.TAKE_PRODUCT;
+            else if (tokenEquals(line, 1, "change")) command.type = Command.Type.TAKE_CHANGE;
+            else return fail(command, CommandError.TAKE_USAGE);
+        } else if (tokenEquals(line, 0, "return")) {
+            command.type = Command.Type.RETURN;
+        } else if (tokenEquals(line, 0, "insert")) {
+            if (tokens < 3) return fail(command, CommandError.INSERT_USAGE);
+            if (!parseInt(line, 1)) return fail(command, CommandError.INVALID_NUMBER, 1);
+            command.weight = parsed;
+            if (!parseInt(line, 2)) return fail(command, CommandError.INVALID_NUMBER, 2);
+            command.size = parsed;
+            command.type = Command.Type.INSERT;
+        } else {
+            return fail(command, CommandError.INCORRECT_COMMAND);
+        }
+        return true;
+    }
+
+    private int tokenize(CharSequence line) {
+        if (line.length() == 0) {
+            starts[0] = ends[0] = 0;
+            return 1;
+        }
+        int end = line.length();
+        while (end > 0 && line.charAt(end - 1) == ' ') end--;
+        if (end == 0) return 0;
+
+        int tokens = 0;
+        int start = 0;
+        for (int i = 0; i <= end && tokens < MAX_TOKENS; i++) {
+            if (i == end || line.charAt(i) == ' ') {
+                starts[tokens] = start;
+                ends[tokens++] = i;
+                start = i + 1;
+            }
+        }
+        return tokens;
+    }
+
+    private boolean tokenEquals(CharSequence line, int token, String expected) {
+        int start = starts[token];
+        if (ends[token] - start != expected.length()) return false;
+        for (int i = 0; i < expected.length(); i++) {
+            if (Character.toLowerCase(line.charAt(start + i)) != expected.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private int product(CharSequence line) {
+        int start = starts[1];
+        int length = ends[1] - start;
+        for (int product = 0; product < catalog.productCount(); product++) {
+            String name = catalog.productName(product);
+            if (name.length() != length) continue;
+            int i = 0;
+            while (i < length && Character.toUpperCase(Character.toLowerCase(line.charAt(start + i)))
+                    == Character.toUpperCase(name.charAt(i))) {
+                i++;
+            }
+            if (i == length) return product;
+        }
+        return -1;
+    }
+
+    private boolean parseInt(CharSequence line, int token) {
+        int i = starts[token];
+        int end = ends[token];
+        if (i == end) return false;
+
+        boolean negative = false;
+        int limit = -Integer.MAX_VALUE;
+        char first = line.charAt(i);
+        if (first < '0') {
+            if (first == '-') {
+                negative = true;
+                limit = Integer.MIN_VALUE;
+            } else if (first != '+') {
+                return false;
+            }
+            if (++i == end) return false;
+        }
+        int multiplyLimit = limit / 10;
+        int result = 0;
+        while (i < end) {
+            int digit = Character.digit(Character.toLowerCase(line.charAt(i++)), 10);
+            if (digit < 0 || result < multiplyLimit) return false;
+            result *= 10;
+            if (result < limit + digit) return false;
+            result -= digit;
+        }
+        parsed = negative ? result : -result;
+        return true;
+    }
+
+    private boolean fail(Command command, CommandError error) {
+        command.error = error;
+        command.type = Command.Type.INVALID;
+        return false;
+    }
+
+    private boolean fail(Command command, CommandError error, int token) {
+        command.tokenStart = starts[token];
+        command.tokenEnd = ends[token];
+        return fail(command, error);
+    }
+}
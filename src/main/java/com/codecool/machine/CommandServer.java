@@ -0,0 +1,328 @@
+package com.codecool.machine;
+
+import com.codecool.machine.vending_machine.Catalog;
+import com.codecool.machine.vending_machine.Display;
+import com.codecool.machine.vending_machine.VendingMachine;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CommandServer implements Closeable {
+    static final byte[] PROMPT = "> ".getBytes(StandardCharsets.US_ASCII);
+    static final int MAX_LINE = 1024;
+
+    private final ServerSocketChannel serverChannel;
+    private final Selector acceptSelector;
+    private final MachineSlot[] slots;
+    private final Worker[] workers;
+    private int nextMachine = 0;
+    private volatile boolean running = true;
+
+    public CommandServer(int port, VendingMachine[] machines, int workerCount) throws IOException {
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port), 4096);
+        serverChannel.configureBlocking(false);
+        acceptSelector = Selector.open();
+        serverChannel.register(acceptSelector, SelectionKey.OP_ACCEPT);
+
+        workers = new Worker[Math.min(workerCount, machines.length)];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Worker();
+        }
+        slots = new MachineSlot[machines.length];
+        for (int i = 0; i < machines.length; i++) {
+            slots[i] = new MachineSlot(machines[i], workers[i % workers.length]);
+            workers[i % workers.length].slots.add(slots[i]);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7070;
+        int machineCount = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        VendingMachine[] machines = new VendingMachine[machineCount];
+        for (int i = 0; i < machineCount; i++) {
+            machines[i] = new VendingMachine();
+            Catalog catalog = machines[i].catalog();
+            for (int coin = 0; coin < catalog.coinCount(); coin++) machines[i].stockCoins(coin, 100);
+            for (int product = 0; product < catalog.productCount(); product++) {
+                machines[i].stockProduct(product, 1_000_000);
+            }
+        }
+        CommandServer server = new CommandServer(port, machines, Runtime.getRuntime().availableProcessors());
+        System.out.println("Serving " + machineCount + " machines on port " + server.getPort());
+        server.run();
+    }
+
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    public void run() throws IOException {
+        for (int i = 0; i < workers.length; i++) {
+            Thread thread = new Thread(workers[i], "vending-worker-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        try {
+            while (running) {
+                acceptSelector.select();
+                acceptSelector.selectedKeys().clear();
+                SocketChannel channel;
+                while ((channel = serverChannel.accept()) != null) {
+                    channel.configureBlocking(false);
+                    channel.socket().setTcpNoDelay(true);
+                    MachineSlot slot = nextSlot();
+                    slot.connections.incrementAndGet();
+                    slot.worker.assign(new Connection(channel, slot));
+                }
+            }
+        } catch (ClosedChannelException e) {
+            if (running) throw e;
+        }
+    }
+
+    private MachineSlot nextSlot() {
+        int chosen = nextMachine;
+        for (int i = 0; i < slots.length; i++) {
+            int candidate = (nextMachine + i) % slots.length;
+            if (slots[candidate].connections.get() == 0) {
+                chosen = candidate;
+                break;
+            }
+        }
+        nextMachine = (chosen + 1) % slots.length;
+        return slots[chosen];
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        for (Worker worker : workers) {
+            worker.running = false;
+            worker.selector.wakeup();
+        }
+        acceptSelector.wakeup();
+        serverChannel.close();
+    }
+
+    private static class MachineSlot {
+        private final VendingMachine machine;
+        private final Worker worker;
+        private final AtomicInteger connections = new AtomicInteger();
+        private final ArrayDeque<Connection> waiting = new ArrayDeque<>();
+        private Connection customer;
+
+        MachineSlot(VendingMachine machine, Worker worker) {
+            this.machine = machine;
+            this.worker = worker;
+        }
+
+        void join(Connection connection) {
+            if (customer == null) worker.serve(connection);
+            else waiting.add(connection);
+        }
+
+        void leave(Connection connection) {
+            connections.decrementAndGet();
+            if (customer != connection) {
+                waiting.remove(connection);
+                return;
+            }
+            machine.returnCoins();
+            machine.takeChange();
+            machine.takeProduct();
+            machine.resetState();
+            customer = null;
+            if (worker.running && !waiting.isEmpty()) worker.serve(waiting.poll());
+        }
+    }
+
+    private static class Worker implements Runnable {
+        private final Selector selector;
+        private final Queue<Connection> pending = new ConcurrentLinkedQueue<>();
+        private final List<MachineSlot> slots = new ArrayList<>();
+        private volatile boolean running = true;
+
+        Worker() throws IOException {
+            selector = Selector.open();
+        }
+
+        void assign(Connection connection) {
+            pending.add(connection);
+            selector.wakeup();
+        }
+
+        void serve(Connection connection) {
+            connection.slot.customer = connection;
+            try {
+                connection.key = connection.channel.register(selector, SelectionKey.OP_READ, connection);
+                connection.greet();
+            } catch (IOException e) {
+                connection.close();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    selector.select();
+                    Connection connection;
+                    while ((connection = pending.poll()) != null) {
+                        connection.slot.join(connection);
+                    }
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        Connection selected = (Connection) key.attachment();
+                        try {
+                            if (key.isValid() && key.isReadable()) selected.read();
+                            if (key.isValid() && key.isWritable()) selected.flush();
+                        } catch (IOException e) {
+                            selected.close();
+                        }
+                    }
+                }
+                Connection connection;
+                while ((connection = pending.poll()) != null) {
+                    connection.close();
+                }
+                for (MachineSlot slot : slots) {
+                    while ((connection = slot.waiting.poll()) != null) {
+                        connection.close();
+                    }
+                }
+                for (SelectionKey key : selector.keys()) {
+                    ((Connection) key.attachment()).close();
+                }
+                selector.close();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static class Connection {
+        private final SocketChannel channel;
+        private final MachineSlot slot;
+        private final VendingMachine machine;
+        private final ByteBuffer input = ByteBuffer.allocate(4096);
+        private final StringBuilder line = new StringBuilder();
+        private final ByteArrayOutputStream response = new ByteArrayOutputStream();
+        private final PrintStream out = new PrintStream(response, false, StandardCharsets.US_ASCII);
+        private Display display;
+        private CommandInterpreter interpreter;
+        private ByteBuffer output = ByteBuffer.allocate(0);
+        private SelectionKey key;
+        private boolean closing = false;
+        private boolean closed = false;
+
+        Connection(SocketChannel channel, MachineSlot slot) {
+            this.channel = channel;
+            this.slot = slot;
+            this.machine = slot.machine;
+        }
+
+        void greet() throws IOException {
+            display = new Display(machine, out);
+            interpreter = new CommandInterpreter(machine, display);
+            prompt();
+            send();
+        }
+
+        void read() throws IOException {
+            int read = channel.read(input);
+            if (read < 0) {
+                close();
+                return;
+            }
+            input.flip();
+            while (input.hasRemaining() && !closing) {
+                char c = (char) input.get();
+                if (c == '\n') {
+                    handle(line);
+                    line.setLength(0);
+                } else if (c != '\r') {
+                    if (line.length() == MAX_LINE) {
+                        close();
+                        return;
+                    }
+                    line.append(c);
+                }
+            }
+            input.clear();
+            send();
+        }
+
+        private void handle(CharSequence request) {
+            if (!interpreter.process(request)) {
+                closing = true;
+                return;
+            }
+            prompt();
+        }
+
+        private void prompt() {
+            display.machineDisplay();
+            machine.resetState();
+            out.write(PROMPT, 0, PROMPT.length);
+        }
+
+        private void send() throws IOException {
+            out.flush();
+            if (response.size() > 0) {
+                byte[] bytes = response.toByteArray();
+                response.reset();
+                if (output.hasRemaining()) {
+                    ByteBuffer merged = ByteBuffer.allocate(output.remaining() + bytes.length);
+                    merged.put(output).put(bytes).flip();
+                    output = merged;
+                } else {
+                    output = ByteBuffer.wrap(bytes);
+                }
+            }
+            flush();
+        }
+
+        void flush() throws IOException {
+            channel.write(output);
+            if (output.hasRemaining()) {
+                key.interestOps(SelectionKey.OP_WRITE);
+            } else if (closing) {
+                close();
+            } else {
+                key.interestOps(SelectionKey.OP_READ);
+            }
+        }
+
+        void close() {
+            if (closed) return;
+            closed = true;
+            if (display != null) display.close();
+            try {
+                if (key != null) key.cancel();
+                channel.close();
+            } catch (IOException ignored) {
+            }
+            slot.leave(this);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.codecool.machine;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+
+public class LoadGenerator {
+    static final String[] SCRIPT = {
+            "insert 2500 250", "insert 2500 250", "insert 2500 250", "select chips", "take product", "take change"
+    };
+
+    private final InetSocketAddress address;
+    private final int clients;
+    private final int requestsPerClient;
+    private final long[] latencies;
+    private int recorded = 0;
+
+    public LoadGenerator(InetSocketAddress address, int clients, int requestsPerClient) {
+        this.address = address;
+        this.clients = clients;
+        this.requestsPerClient = requestsPerClient;
+        latencies = new long[clients * requestsPerClient];
+    }
+
+    public static void main(String[] args) throws IOException {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 7070;
+        int clients = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        int requests = args.length > 3 ? Integer.parseInt(args[3]) : 1000;
+        new LoadGenerator(new InetSocketAddress(host, port), clients, requests).run().print();
+    }
+
+    public Report run() throws IOException {
+        Selector selector = Selector.open();
+        for (int i = 0; i < clients; i++) {
+            SocketChannel channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            channel.connect(address);
+            channel.register(selector, SelectionKey.OP_CONNECT, new Client(channel));
+        }
+
+        long start = System.nanoTime();
+        int finished = 0;
+        while (finished < clients) {
+            selector.select();
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                Client client = (Client) key.attachment();
+                if (key.isConnectable()) {
+                    client.channel.finishConnect();
+                    key.interestOps(SelectionKey.OP_READ);
+                } else if (key.isReadable() && client.read()) {
+                    if (client.sent > 0) latencies[recorded++] = System.nanoTime() - client.sentAt;
+                    if (client.sent == requestsPerClient) {
+                        client.channel.close();
+                        finished++;
+                    } else {
+                        client.send();
+                    }
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        selector.close();
+        return new Report(Arrays.copyOf(latencies, recorded), elapsed);
+    }
+
+    private static class Client {
+        private final SocketChannel channel;
+        private final ByteBuffer input = ByteBuffer.allocate(4096);
+        private int sent = 0;
+        private long sentAt;
+
+        Client(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        boolean read() throws IOException {
+            if (channel.read(input) < 0) throw new IOException("Server closed connection");
+            int end = input.position();
+            boolean complete = end >= 2 && input.get(end - 2) == '>' && input.get(end - 1) == ' ';
+            if (complete || !input.hasRemaining()) input.clear();
+            return complete;
+        }
+
+        void send() throws IOException {
+            ByteBuffer request = ByteBuffer.wrap((SCRIPT[sent % SCRIPT.length] + "\n").getBytes(StandardCharsets.US_ASCII));
+            sentAt = System.nanoTime();
+            while (request.hasRemaining()) channel.write(request);
+            sent++;
+        }
+    }
+
+    public static class Report {
+        private final long[] latencies;
+        private final long elapsedNanos;
+
+        Report(long[] latencies, long elapsedNanos) {
+            this.latencies = latencies;
+            this.elapsedNanos = elapsedNanos;
+            Arrays.sort(latencies);
+        }
+
+        public double throughput() {
+            return latencies.length * 1e9 / elapsedNanos;
+        }
+
+        public long percentileMicros(double percentile) {
+            if (latencies.length == 0) return 0;
+            int index = (int) Math.ceil(percentile / 100 * latencies.length) - 1;
+            return latencies[Math.max(0, index)] / 1000;
+        }
+
+        public void print() {
+            System.out.printf("requests: %d%n", latencies.length);
+            System.out.printf("throughput: %.0f requests/s%n", throughput());
+            System.out.printf("p50: %d us%n", percentileMicros(50));
+            System.out.printf("p99: %d us%n", percentileMicros(99));
+            System.out.printf("max: %d us%n", percentileMicros(100));
+        }
+    }
+}
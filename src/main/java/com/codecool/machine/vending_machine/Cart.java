@@ -0,0 +1,66 @@
+package com.codecool.machine.vending_machine;
+
+public final class Cart {
+    private final Catalog catalog;
+    final Inventory items;
+    private int total = 0;
+    private int size = 0;
+
+    public Cart() {
+        this(Catalog.standard());
+    }
+
+    public Cart(Catalog catalog) {
+        this.catalog = catalog;
+        items = new Inventory(catalog.productCount());
+    }
+
+    public Cart add(Product product) {
+        return add(product, 1);
+    }
+
+    public Cart add(Product product, int count) {
+        int id = catalog.productId(product);
+        if (id < 0) throw new IllegalArgumentException("Catalog has no product " + product);
+        return add(id, count);
+    }
+
+    public Cart add(int product, int count) {
+        if (count <= 0) throw new IllegalArgumentException("Count must be positive, got " + count);
+        total = Math.addExact(total, Math.multiplyExact(catalog.productCost(product), count));
+        size = Math.addExact(size, count);
+        items.add(product, count);
+        return this;
+    }
+
+    public int count(Product product) {
+        int id = catalog.productId(product);
+        return id < 0 ? 0 : items.get(id);
+    }
+
+    public int count(int product) {
+        return items.get(product);
+    }
+
+    public int total() {
+        return total;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        items.clear();
+        total = 0;
+        size = 0;
+    }
+
+    Catalog catalog() {
+        return catalog;
+    }
+}
@@ -0,0 +1,348 @@
+package com.codecool.machine.vending_machine;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+public final class Catalog {
+    private static final String STANDARD_RESOURCE = "/catalog.conf";
+    private static final String STANDARD_PROPERTY = "vending.catalog";
+    private static final int COIN_FIELDS = 5;
+    private static final int PRODUCT_FIELDS = 2;
+
+    private final String[] coinNames;
+    private final int[] coinSpecs;
+    private final String[] productNames;
+    private final int[] productSpecs;
+    private final int[] startingCoins;
+    private final int[] startingStock;
+    private final Map<String, Integer> coinIds;
+    private final Map<String, Integer> productIds;
+    private volatile EnumIds enumIds;
+    private volatile Denominations denominations;
+    private volatile CoinFactory coinFactory;
+
+    private Catalog(String[] coinNames, int[] coinSpecs, String[] productNames, int[] productSpecs,
+                    int[] startingCoins, int[] startingStock) {
+        this.coinNames = coinNames;
+        this.coinSpecs = coinSpecs;
+        this.productNames = productNames;
+        this.productSpecs = productSpecs;
+        this.startingCoins = startingCoins;
+        this.startingStock = startingStock;
+        coinIds = index(coinNames);
+        productIds = index(productNames);
+    }
+
+    public static Catalog standard() {
+        return Standard.CATALOG;
+    }
+
+    public static Catalog load(Path file) throws IOException {
+        return parse(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+    }
+
+    public static Catalog parse(CharSequence text) {
+        return new Parser(text).parse();
+    }
+
+    public int coinCount() {
+        return coinNames.length;
+    }
+
+    public String coinName(int id) {
+        return coinNames[id];
+    }
+
+    public int coinValue(int id) {
+        return coinSpecs[id * COIN_FIELDS];
+    }
+
+    public int coinWeight(int id) {
+        return coinSpecs[id * COIN_FIELDS + 1];
+    }
+
+    public int coinSize(int id) {
+        return coinSpecs[id * COIN_FIELDS + 2];
+    }
+
+    public int coinWeightError(int id) {
+        return coinSpecs[id * COIN_FIELDS + 3];
+    }
+
+    public int coinSizeError(int id) {
+        return coinSpecs[id * COIN_FIELDS + 4];
+    }
+
+    public int startingCoins(int id) {
+        return startingCoins[id];
+    }
+
+    public int coinId(String name) {
+        return coinIds.getOrDefault(name, -1);
+    }
+
+    public int productCount() {
+        return productNames.length;
+    }
+
+    public String productName(int id) {
+        return productNames[id];
+    }
+
+    public int productCost(int id) {
+        return productSpecs[id * PRODUCT_FIELDS];
+    }
+
+    public int productSlot(int id) {
+        return productSpecs[id * PRODUCT_FIELDS + 1];
+    }
+
+    public int startingStock(int id) {
+        return startingStock[id];
+    }
+
+    public int productId(String name) {
+        return productIds.getOrDefault(name, -1);
+    }
+
+    public int coinId(Coin coin) {
+        return enumIds().coins[coin.ordinal()];
+    }
+
+    public Coin coin(int id) {
+        Coin[] coins = enumIds().coinsById;
+        return id >= 0 && id < coins.length ? coins[id] : null;
+    }
+
+    public int productId(Product product) {
+        return enumIds().products[product.ordinal()];
+    }
+
+    public Product product(int id) {
+        Product[] products = enumIds().productsById;
+        return id >= 0 && id < products.length ? products[id] : null;
+    }
+
+    Denominations denominations() {
+        Denominations coins = denominations;
+        if (coins == null) denominations = coins = new Denominations(this);
+        return coins;
+    }
+
+    CoinFactory coinFactory() {
+        CoinFactory factory = coinFactory;
+        if (factory == null) coinFactory = factory = new CoinFactory(this);
+        return factory;
+    }
+
+    private EnumIds enumIds() {
+        EnumIds ids = enumIds;
+        if (ids == null) enumIds = ids = new EnumIds(this);
+        return ids;
+    }
+
+    private static Map<String, Integer> index(String[] names) {
+        Map<String, Integer> ids = new HashMap<>(names.length * 2);
+        for (int id = 0; id < names.length; id++) ids.put(names[id], id);
+        return ids;
+    }
+
+    private static final class EnumIds {
+        private final int[] coins = new int[Coin.values().length];
+        private final Coin[] coinsById;
+        private final int[] products = new int[Product.values().length];
+        private final Product[] productsById;
+
+        EnumIds(Catalog catalog) {
+            coinsById = new Coin[catalog.coinCount()];
+            for (Coin coin : Coin.values()) {
+                coins[coin.ordinal()] = coin.equals(Coin.INVALID) ? -1 : catalog.coinId(coin.name());
+                if (coins[coin.ordinal()] >= 0) coinsById[coins[coin.ordinal()]] = coin;
+            }
+            productsById = new Product[catalog.productCount()];
+            for (Product product : Product.values()) {
+                products[product.ordinal()] = catalog.productId(product.name());
+                if (products[product.ordinal()] >= 0) productsById[products[product.ordinal()]] = product;
+            }
+        }
+    }
+
+    private static final class Standard {
+        private static final Catalog CATALOG = read();
+
+        private static Catalog read() {
+            String file = System.getProperty(STANDARD_PROPERTY);
+            try {
+                if (file != null) return load(Path.of(file));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            try (InputStream in = Catalog.class.getResourceAsStream(STANDARD_RESOURCE)) {
+                if (in == null) throw new IllegalStateException("Missing " + STANDARD_RESOURCE);
+                return parse(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static final class Parser {
+        private final CharSequence text;
+        private int position = 0;
+        private int line = 1;
+
+        private String[] coinNames = new String[8];
+        private int[] coinSpecs = new int[8 * COIN_FIELDS];
+        private int coins = 0;
+        private String[] productNames = new String[16];
+        private int[] productSpecs = new int[16 * PRODUCT_FIELDS];
+        private int products = 0;
+        private final Map<String, Integer> floats = new HashMap<>();
+        private final Map<String, Integer> stocks = new HashMap<>();
+        private final Map<Integer, Integer> slots = new HashMap<>();
+        private final Set<String> names = new HashSet<>();
+
+        Parser(CharSequence text) {
+            this.text = text;
+        }
+
+        Catalog parse() {
+            while (position < text.length()) {
+                skipBlanks();
+                if (position < text.length() && !atLineEnd()) {
+                    String kind = word();
+                    if (kind.equals("coin")) coin();
+                    else if (kind.equals("product")) product();
+                    else if (kind.equals("float")) starting("coin", coinNames, coins, floats);
+                    else if (kind.equals("stock")) starting("product", productNames, products, stocks);
+                    else throw error("unknown entry '" + kind + "'");
+                    skipBlanks();
+                    if (!atLineEnd()) throw error("unexpected '" + word() + "'");
+                }
+                nextLine();
+            }
+            String[] coinNames = Arrays.copyOf(this.coinNames, coins);
+            String[] productNames = Arrays.copyOf(this.productNames, products);
+            return new Catalog(coinNames, Arrays.copyOf(coinSpecs, coins * COIN_FIELDS),
+                    productNames, Arrays.copyOf(productSpecs, products * PRODUCT_FIELDS),
+                    counts(coinNames, floats), counts(productNames, stocks));
+        }
+
+        private void starting(String kind, String[] declared, int count, Map<String, Integer> counts) {
+            String name = word();
+            if (!Arrays.asList(declared).subList(0, count).contains(name)) {
+                throw error("unknown " + kind + " '" + name + "'");
+            }
+            int number = number();
+            if (number < 0) throw error(kind + " " + name + " must start with a non-negative count");
+            if (counts.putIfAbsent(name, number) != null) throw error("duplicate starting count for " + name);
+        }
+
+        private static int[] counts(String[] names, Map<String, Integer> counts) {
+            int[] result = new int[names.length];
+            for (int id = 0; id < names.length; id++) result[id] = counts.getOrDefault(names[id], 0);
+            return result;
+        }
+
+        private void coin() {
+            String name = name("coin");
+            if (coins == coinNames.length) {
+                coinNames = Arrays.copyOf(coinNames, coins * 2);
+                coinSpecs = Arrays.copyOf(coinSpecs, coins * 2 * COIN_FIELDS);
+            }
+            int base = coins * COIN_FIELDS;
+            for (int field = 0; field < COIN_FIELDS; field++) coinSpecs[base + field] = number();
+            if (coinSpecs[base] <= 0) throw error("coin " + name + " must have a positive value");
+            if (coinSpecs[base + 3] < 0 || coinSpecs[base + 4] < 0) {
+                throw error("coin " + name + " must have non-negative tolerances");
+            }
+            coinNames[coins++] = name;
+        }
+
+        private void product() {
+            String name = name("product");
+            if (products == productNames.length) {
+                productNames = Arrays.copyOf(productNames, products * 2);
+                productSpecs = Arrays.copyOf(productSpecs, products * 2 * PRODUCT_FIELDS);
+            }
+            int base = products * PRODUCT_FIELDS;
+            productSpecs[base] = number();
+            productSpecs[base + 1] = number();
+            if (productSpecs[base] <= 0) throw error("product " + name + " must have a positive cost");
+            Integer taken = slots.putIfAbsent(productSpecs[base + 1], products);
+            if (taken != null) {
+                throw error("slot " + productSpecs[base + 1] + " already holds " + productNames[taken]);
+            }
+            productNames[products++] = name;
+        }
+
+        private String name(String kind) {
+            String name = word();
+            if (name.isEmpty()) throw error(kind + " needs a name");
+            if (!names.add(kind + ' ' + name)) throw error("duplicate " + kind + " " + name);
+            return name;
+        }
+
+        private String word() {
+            skipBlanks();
+            int start = position;
+            while (position < text.length() && !isBlank(text.charAt(position)) && !atLineEnd()) position++;
+            return text.subSequence(start, position).toString();
+        }
+
+        private int number() {
+            skipBlanks();
+            int start = position;
+            boolean negative = position < text.length() && text.charAt(position) == '-';
+            if (negative) position++;
+            long value = 0;
+            int digits = 0;
+            while (position < text.length()) {
+                int digit = text.charAt(position) - '0';
+                if (digit < 0 || digit > 9) break;
+                value = value * 10 + digit;
+                if (value > Integer.MAX_VALUE) throw error("number out of range");
+                position++;
+                digits++;
+            }
+            if (digits == 0 || (position < text.length() && !isBlank(text.charAt(position)) && !atLineEnd())) {
+                position = start;
+                throw error("expected a number but found '" + word() + "'");
+            }
+            return (int) (negative ? -value : value);
+        }
+
+        private void skipBlanks() {
+            while (position < text.length() && isBlank(text.charAt(position))) position++;
+        }
+
+        private boolean atLineEnd() {
+            if (position >= text.length()) return true;
+            char c = text.charAt(position);
+            return c == '\n' || c == '\r' || c == '#';
+        }
+
+        private void nextLine() {
+            while (position < text.length() && text.charAt(position) != '\n') position++;
+            position++;
+            line++;
+        }
+
+        private static boolean isBlank(char c) {
+            return c == ' ' || c == '\t';
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Catalog line " + line + ": " + message);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.codecool.machine.vending_machine;
+
+import java.util.Arrays;
+
+class ChangeAvailability {
+    static final int WORDS = 4;
+    static final int CAPACITY = WORDS * Long.SIZE - 1;
+
+    private final int[] denominations;
+    private final int unit;
+    private final int[] units;
+    private final int[] builtCounts;
+    private final int[] counts;
+    private final long[] reachable = new long[WORDS];
+    private final long[] exactChangeMask = new long[WORDS];
+    private long builtVersion = -1;
+
+    ChangeAvailability() {
+        this(Catalog.standard());
+    }
+
+    ChangeAvailability(Catalog catalog) {
+        Denominations coins = catalog.denominations();
+        denominations = coins.ids;
+        unit = coins.unit;
+        int largest = coins.size() > 0 ? coins.values[0] : 0;
+        units = new int[denominations.length];
+        for (int i = 0; i < denominations.length; i++) {
+            units[i] = coins.values[i] / unit;
+        }
+        builtCounts = new int[denominations.length];
+        counts = new int[denominations.length];
+        for (int amount = 1; amount < Math.min(largest / unit, CAPACITY + 1); amount++) {
+            exactChangeMask[amount >>> 6] |= 1L << amount;
+        }
+    }
+
+    boolean mayMake(int amount, Inventory machineCoins, long version) {
+        if (amount % unit != 0) return false;
+        int units = amount / unit;
+        if (units > CAPACITY) return true;
+        refresh(machineCoins, version);
+        return (reachable[units >>> 6] & 1L << units) != 0;
+    }
+
+    boolean exactChangeOnly(Inventory machineCoins, long version) {
+        refresh(machineCoins, version);
+        for (int i = 0; i < WORDS; i++) {
+            if ((reachable[i] & exactChangeMask[i]) != exactChangeMask[i]) return true;
+        }
+        return false;
+    }
+
+    private void refresh(Inventory machineCoins, long version) {
+        if (version == builtVersion) return;
+        builtVersion = version;
+
+        boolean shrunk = false;
+        for (int i = 0; i < denominations.length; i++) {
+            counts[i] = Math.max(0, Math.min(machineCoins.get(denominations[i]), CAPACITY / units[i]));
+            if (counts[i] < builtCounts[i]) shrunk = true;
+        }
+        if (shrunk) {
+            Arrays.fill(reachable, 0);
+            reachable[0] = 1;
+            Arrays.fill(builtCounts, 0);
+        } else if (reachable[0] == 0) {
+            reachable[0] = 1;
+        }
+        for (int i = 0; i < denominations.length; i++) {
+            addCoins(units[i], counts[i] - builtCounts[i]);
+            builtCounts[i] = counts[i];
+        }
+    }
+
+    private void addCoins(int units, int added) {
+        for (int chunk = 1; added > 0; chunk <<= 1) {
+            int taken = Math.min(chunk, added);
+            shiftOr(taken * units);
+            added -= taken;
+        }
+    }
+
+    private void shiftOr(int shift) {
+        int wordShift = shift >>> 6;
+        int bitShift = shift & 63;
+        for (int word = WORDS - 1; word >= wordShift; word--) {
+            int source = word - wordShift;
+            long shifted = reachable[source] << bitShift;
+            if (bitShift != 0 && source > 0) shifted |= reachable[source - 1] >>> (64 - bitShift);
+            reachable[word] |= shifted;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.codecool.machine.vending_machine;
+
+import java.util.Map;
+import java.util.function.Function;
+
+public final class ChangePolicy {
+    private final String name;
+    private final Function<Catalog, ChangeStrategy> strategies;
+
+    private ChangePolicy(String name, Function<Catalog, ChangeStrategy> strategies) {
+        this.name = name;
+        this.strategies = strategies;
+    }
+
+    public static ChangePolicy firstFound() {
+        return new ChangePolicy("FIRST_FOUND", KnapsackChangeStrategy::new);
+    }
+
+    public static ChangePolicy fewestCoins() {
+        return new ChangePolicy("FEWEST_COINS", OptimalChangeStrategy::fewestCoins);
+    }
+
+    public static ChangePolicy balanced(Map<Coin, Integer> targets) {
+        Map<Coin, Integer> levels = Map.copyOf(targets);
+        return new ChangePolicy("BALANCED" + targets, catalog -> {
+            int[] byId = new int[catalog.coinCount()];
+            levels.forEach((coin, level) -> {
+                int id = catalog.coinId(coin);
+                if (id < 0) throw new IllegalArgumentException("Catalog has no coin " + coin);
+                byId[id] = level;
+            });
+            return OptimalChangeStrategy.balanced(catalog, byId);
+        });
+    }
+
+    ChangeStrategy newStrategy(Catalog catalog) {
+        return strategies.apply(catalog);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,5 @@
+package com.codecool.machine.vending_machine;
+
+interface ChangeStrategy {
+    boolean computeChange(int rest, Inventory machineCoins, Inventory changeToReturn);
+}
@@ -4,7 +4,7 @@ public enum Coin {
     NICKEL(5, 500, 50, 5, 2),
     DIME(10, 1000, 100, 10, 4),
     QUARTER(25, 2500, 250, 25, 10),
-    INVALID(-1,-1,-1,0,0);
+    INVALID(-1, -1, -1, 0, 0);
 
     final int value;
     final int weight;
@@ -13,10 +13,12 @@ public enum Coin {
     final int sizeError;
 
     Coin(int value, int weight, int size, int weightError, int sizeError) {
-        this.value = value;
-        this.weight = weight;
-        this.size = size;
-        this.weightError = weightError;
-        this.sizeError = sizeError;
+        Catalog catalog = value > 0 ? Catalog.standard() : null;
+        int id = catalog != null ? catalog.coinId(name()) : -1;
+        this.value = id >= 0 ? catalog.coinValue(id) : value;
+        this.weight = id >= 0 ? catalog.coinWeight(id) : weight;
+        this.size = id >= 0 ? catalog.coinSize(id) : size;
+        this.weightError = id >= 0 ? catalog.coinWeightError(id) : weightError;
+        this.sizeError = id >= 0 ? catalog.coinSizeError(id) : sizeError;
     }
 }
@@ -1,15 +1,122 @@
 package com.codecool.machine.vending_machine;
 
+import java.util.Arrays;
+
 class CoinFactory {
-    Coin getCoin(int weight, int size) {
-        for (Coin coin : Coin.values()) {
-            if (weight >= coin.weight - coin.weightError
-                    && weight <= coin.weight + coin.weightError
-                    && size >= coin.size - coin.sizeError
-                    && size <= coin.size + coin.sizeError) {
-                return coin;
+    private static final int[] NO_COINS = new int[0];
+
+    private final int[] windows;
+    private final int minWeight;
+    private final int minSize;
+    private final int cellWeight;
+    private final int cellSize;
+    private final int columns;
+    private final int rows;
+    private final int[][] cells;
+
+    CoinFactory(Coin... coins) {
+        this(Arrays.stream(coins).filter(coin -> coin.value > 0).toArray(Coin[]::new), null);
+    }
+
+    CoinFactory(Catalog catalog) {
+        this(null, catalog);
+    }
+
+    private CoinFactory(Coin[] coins, Catalog catalog) {
+        int count = coins != null ? coins.length : catalog.coinCount();
+        String[] names = new String[count];
+        windows = new int[count * 4];
+        for (int id = 0; id < count; id++) {
+            if (coins != null) {
+                Coin coin = coins[id];
+                names[id] = coin.name();
+                window(id, coin.weight, coin.weightError, coin.size, coin.sizeError);
+            } else {
+                names[id] = catalog.coinName(id);
+                window(id, catalog.coinWeight(id), catalog.coinWeightError(id),
+                        catalog.coinSize(id), catalog.coinSizeError(id));
+            }
+            for (int other = 0; other < id; other++) {
+                if (overlap(id, other)) {
+                    throw new IllegalArgumentException("Tolerance windows of " + names[other] + " and " + names[id] + " overlap");
+                }
+            }
+        }
+
+        int lowWeight = Integer.MAX_VALUE, highWeight = Integer.MIN_VALUE;
+        int lowSize = Integer.MAX_VALUE, highSize = Integer.MIN_VALUE;
+        int narrowestWeight = Integer.MAX_VALUE, narrowestSize = Integer.MAX_VALUE;
+        for (int id = 0; id < count; id++) {
+            lowWeight = Math.min(lowWeight, windows[id * 4]);
+            highWeight = Math.max(highWeight, windows[id * 4 + 1]);
+            lowSize = Math.min(lowSize, windows[id * 4 + 2]);
+            highSize = Math.max(highSize, windows[id * 4 + 3]);
+            narrowestWeight = Math.min(narrowestWeight, windows[id * 4 + 1] - windows[id * 4] + 1);
+            narrowestSize = Math.min(narrowestSize, windows[id * 4 + 3] - windows[id * 4 + 2] + 1);
+        }
+
+        if (count == 0) {
+            minWeight = minSize = 0;
+            cellWeight = cellSize = 1;
+            columns = rows = 0;
+            cells = new int[0][];
+            return;
+        }
+        minWeight = lowWeight;
+        minSize = lowSize;
+        cellWeight = narrowestWeight;
+        cellSize = narrowestSize;
+        columns = (highWeight - lowWeight) / cellWeight + 1;
+        rows = (highSize - lowSize) / cellSize + 1;
+        cells = new int[columns * rows][];
+        Arrays.fill(cells, NO_COINS);
+
+        for (int id = 0; id < count; id++) {
+            int firstColumn = (windows[id * 4] - minWeight) / cellWeight;
+            int lastColumn = (windows[id * 4 + 1] - minWeight) / cellWeight;
+            int firstRow = (windows[id * 4 + 2] - minSize) / cellSize;
+            int lastRow = (windows[id * 4 + 3] - minSize) / cellSize;
+            for (int row = firstRow; row <= lastRow; row++) {
+                for (int column = firstColumn; column <= lastColumn; column++) {
+                    int[] cell = cells[row * columns + column];
+                    int[] grown = Arrays.copyOf(cell, cell.length + 1);
+                    grown[cell.length] = id;
+                    cells[row * columns + column] = grown;
+                }
+            }
+        }
+    }
+
+    private void window(int id, int weight, int weightError, int size, int sizeError) {
+        windows[id * 4] = weight - weightError;
+        windows[id * 4 + 1] = weight + weightError;
+        windows[id * 4 + 2] = size - sizeError;
+        windows[id * 4 + 3] = size + sizeError;
+    }
+
+    private boolean overlap(int a, int b) {
+        return windows[a * 4] <= windows[b * 4 + 1]
+                && windows[b * 4] <= windows[a * 4 + 1]
+                && windows[a * 4 + 2] <= windows[b * 4 + 3]
+                && windows[b * 4 + 2] <= windows[a * 4 + 3];
+    }
+
+    int coinId(int weight, int size) {
+        int column = weight - minWeight;
+        int row = size - minSize;
+        if (column < 0 || row < 0) return -1;
+        column /= cellWeight;
+        row /= cellSize;
+        if (column >= columns || row >= rows) return -1;
+
+        for (int id : cells[row * columns + column]) {
+            if (weight >= windows[id * 4]
+                    && weight <= windows[id * 4 + 1]
+                    && size >= windows[id * 4 + 2]
+                    && size <= windows[id * 4 + 3]) {
+                return id;
             }
         }
-        return Coin.INVALID;
+        return -1;
     }
 }
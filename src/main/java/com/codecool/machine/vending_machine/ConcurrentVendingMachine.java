@@ -0,0 +1,133 @@
+package com.codecool.machine.vending_machine;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class ConcurrentVendingMachine {
+    private final Catalog catalog;
+    private final AtomicIntegerArray products;
+    private final AtomicIntegerArray machineCoins;
+
+    public ConcurrentVendingMachine() {
+        this(Catalog.standard());
+    }
+
+    public ConcurrentVendingMachine(Catalog catalog) {
+        this.catalog = catalog;
+        products = new AtomicIntegerArray(catalog.productCount());
+        machineCoins = new AtomicIntegerArray(catalog.coinCount() + 1);
+    }
+
+    public Session openSession() {
+        return new Session(this);
+    }
+
+    public Catalog catalog() {
+        return catalog;
+    }
+
+    public int getProductCount(Product product) {
+        return getProductCount(productId(product));
+    }
+
+    public int getProductCount(int product) {
+        return products.get(product);
+    }
+
+    public void stockProduct(Product product, int count) {
+        stockProduct(productId(product), count);
+    }
+
+    public void stockProduct(int product, int count) {
+        products.addAndGet(product, count);
+    }
+
+    public int getCoinCount(Coin coin) {
+        int id = catalog.coinId(coin);
+        return id < 0 ? 0 : getCoinCount(id);
+    }
+
+    public int getCoinCount(int coin) {
+        return machineCoins.get(coin);
+    }
+
+    public void stockCoins(Coin coin, int count) {
+        int id = catalog.coinId(coin);
+        if (id < 0) throw new IllegalArgumentException("Catalog has no coin " + coin);
+        stockCoins(id, count);
+    }
+
+    public void stockCoins(int coin, int count) {
+        machineCoins.addAndGet(coin, count);
+    }
+
+    int productId(Product product) {
+        int id = catalog.productId(product);
+        if (id < 0) throw new IllegalArgumentException("Catalog has no product " + product);
+        return id;
+    }
+
+    boolean reserveProduct(int ordinal) {
+        int available;
+        do {
+            available = products.get(ordinal);
+            if (available <= 0) return false;
+        } while (!products.compareAndSet(ordinal, available, available - 1));
+        return true;
+    }
+
+    void releaseProduct(int product) {
+        products.incrementAndGet(product);
+    }
+
+    boolean reserveProducts(Inventory items) {
+        for (int i = 0; i < items.size(); i++) {
+            if (!reserve(products, i, items.get(i))) {
+                for (int j = 0; j < i; j++) {
+                    products.addAndGet(j, items.get(j));
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void releaseProducts(Inventory items) {
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i) != 0) products.addAndGet(i, items.get(i));
+        }
+    }
+
+    void snapshotCoins(Inventory coins) {
+        for (int i = 0; i < coins.size(); i++) {
+            coins.set(i, machineCoins.get(i));
+        }
+    }
+
+    boolean reserveCoins(Inventory change) {
+        for (int i = 0; i < change.size(); i++) {
+            if (!reserve(machineCoins, i, change.get(i))) {
+                for (int j = 0; j < i; j++) {
+                    machineCoins.addAndGet(j, change.get(j));
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean reserve(AtomicIntegerArray counts, int ordinal, int count) {
+        if (count == 0) return true;
+        int available;
+        do {
+            available = counts.get(ordinal);
+            if (available < count) return false;
+        } while (!counts.compareAndSet(ordinal, available, available - count));
+        return true;
+    }
+
+    void depositCoins(Inventory coins) {
+        for (int i = 0; i < coins.size(); i++) {
+            if (coins.get(i) != 0) machineCoins.addAndGet(i, coins.get(i));
+        }
+    }
+}
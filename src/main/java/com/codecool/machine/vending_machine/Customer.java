@@ -0,0 +1,5 @@
+package com.codecool.machine.vending_machine;
+
+public interface Customer<T> {
+    T visit(Session session) throws Exception;
+}
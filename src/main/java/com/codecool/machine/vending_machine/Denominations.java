@@ -0,0 +1,53 @@
+package com.codecool.machine.vending_machine;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+final class Denominations {
+    final int[] ids;
+    final int[] values;
+    final int unit;
+
+    Denominations(Catalog catalog) {
+        ids = IntStream.range(0, catalog.coinCount()).boxed()
+                .sorted(Comparator.comparingInt(catalog::coinValue).reversed())
+                .mapToInt(Integer::intValue).toArray();
+        values = Arrays.stream(ids).map(catalog::coinValue).toArray();
+        int gcd = 0;
+        for (int value : values) gcd = gcd(gcd, value);
+        unit = Math.max(gcd, 1);
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    boolean[] scratch(int amount) {
+        return new boolean[Math.max(amount, 0) / unit + 1];
+    }
+
+    boolean canMake(int amount, int[] counts, boolean[] reachable) {
+        if (amount == 0) return true;
+        if (amount < 0 || amount % unit != 0) return false;
+        int target = amount / unit;
+        Arrays.fill(reachable, 0, target + 1, false);
+        reachable[0] = true;
+        for (int i = 0; i < values.length; i++) {
+            int step = values[i] / unit;
+            int left = Math.min(Math.max(counts[i], 0), target / step);
+            for (int piece = 1; left > 0; piece <<= 1) {
+                int shift = Math.min(piece, left) * step;
+                left -= Math.min(piece, left);
+                for (int t = target; t >= shift; t--) {
+                    if (reachable[t - shift]) reachable[t] = true;
+                }
+            }
+        }
+        return reachable[target];
+    }
+
+    static int gcd(int a, int b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+}
@@ -1,58 +1,88 @@
 package com.codecool.machine.vending_machine;
 
+import java.io.PrintStream;
 import java.util.Scanner;
+import java.util.concurrent.Flow;
+
+public class Display implements AutoCloseable {
+    private static final int COLUMN_WIDTH = 9;
+    private static final String[] COIN_COLUMNS = {"name", "value", "weight", "size", "available"};
+    private static final String[] PRODUCT_COLUMNS = {"name", "cost", "available"};
+    private static final String[] CHANGE_COLUMNS = {"name", "coins"};
+    private static final String[] TRAY_COLUMNS = {"name", "cost", "bought"};
+    private static final int EVENT_CAPACITY = 64;
 
-public class Display {
     private final VendingMachine machine;
+    private final Catalog catalog;
+    private final PrintStream out;
+    private final StringBuilder frame = new StringBuilder(1024);
+    private final Section coins = new Section();
+    private final Section products = new Section();
+    private final Section changeTray = new Section();
+    private final Section productTray = new Section();
+    private final MachineEventPublisher events;
+    private MachineState state;
+    private byte[] bytes = new byte[1024];
 
     public Display(VendingMachine vendingMachine) {
+        this(vendingMachine, System.out);
+    }
+
+    public Display(VendingMachine vendingMachine, PrintStream out) {
         this.machine = vendingMachine;
+        this.catalog = vendingMachine.catalog();
+        this.out = out;
+        state = vendingMachine.getState();
+        events = MachineEventPublisher.attach(vendingMachine, Runnable::run, EVENT_CAPACITY);
+        events.subscribe(new StateTracker());
     }
 
     public void startScreen() {
-        System.out.println("Welcome to vending machine simulator!\n");
+        frame.append("Welcome to vending machine simulator!\n\n");
         displayCoins();
         displayProducts();
         displayInstruction();
+        flush();
         Scanner scanner = new Scanner(System.in);
         scanner.nextLine();
     }
 
     private void displayCoins() {
-        System.out.println("Accepted coins:");
-        for (String column : new String[]{"name", "value", "weight", "size", "available"}) {
-            System.out.printf("%-9s", column);
+        if (coins.isStale(machine.machineCoinsVersion())) {
+            StringBuilder text = coins.begin();
+            text.append("Accepted coins:\n");
+            header(text, COIN_COLUMNS);
+            for (int coin = 0; coin < catalog.coinCount(); coin++) {
+                column(text, catalog.coinName(coin));
+                column(text, catalog.coinValue(coin));
+                column(text, catalog.coinWeight(coin));
+                column(text, catalog.coinSize(coin));
+                column(text, machine.coinCount(coin));
+                text.append('\n');
+            }
+            text.append('\n');
         }
-        System.out.println();
-        for (Coin coin : Coin.values()) {
-            if (coin.equals(Coin.INVALID)) continue;
-            System.out.println(String.format("%-9s", coin.toString())
-                    + String.format("%-9s", coin.value)
-                    + String.format("%-9s", coin.weight)
-                    + String.format("%-9s", coin.size)
-                    + String.format("%-9s", machine.getMachineCoins().getOrDefault(coin, 0))
-            );
-        }
-        System.out.println();
+        frame.append(coins.text);
     }
 
     private void displayProducts() {
-        System.out.println("Available products:");
-        for (String column : new String[]{"name", "cost", "available"}) {
-            System.out.printf("%-9s", column);
-        }
-        System.out.println();
-        for (Product product : Product.values()) {
-            System.out.println(String.format("%-9s", product.toString())
-                    + String.format("%-9s", product.cost)
-                    + String.format("%-9s", machine.getProducts().getOrDefault(product, 0))
-            );
+        if (products.isStale(machine.productsVersion())) {
+            StringBuilder text = products.begin();
+            text.append("Available products:\n");
+            header(text, PRODUCT_COLUMNS);
+            for (int product = 0; product < catalog.productCount(); product++) {
+                column(text, catalog.productName(product));
+                column(text, catalog.productCost(product));
+                column(text, machine.productCount(product));
+                text.append('\n');
+            }
+            text.append('\n');
         }
-        System.out.println();
+        frame.append(products.text);
     }
 
     private void displayInstruction() {
-        System.out.println("""
+        frame.append("""
                 To interact with the machine, type:
                 insert $weight $size : to insert coin
                 return               : to return inserted coins
@@ -60,49 +90,143 @@ public class Display {
                 take product         : to take bought product
                 take change          : to take change
                 exit                 : to exit program
+
                 """);
     }
 
+    public void displayMessage(String message) {
+        frame.append(message).append('\n');
+    }
+
     public void machineDisplay() {
-        switch (machine.getState()) {
-            case INSERT_COIN -> System.out.println("INSERT COIN");
-            case SOLD_OUT -> System.out.println("SOLD OUT");
-            case COIN_INSERTED -> System.out.println(machine.getInsertedValue());
-            case PRODUCT_BOUGHT -> System.out.println("THANK YOU");
-            case INSUFFICIENT_FUNDS -> System.out.println("INSUFFICIENT FUNDS");
-            case CANT_MAKE_CHANGE -> System.out.println("CAN'T MAKE CHANGE, INSERT EXACT VALUE");
+        switch (state) {
+            case INSERT_COIN -> frame.append(machine.isExactChangeOnly() ? "EXACT CHANGE ONLY" : "INSERT COIN");
+            case SOLD_OUT -> frame.append("SOLD OUT");
+            case COIN_INSERTED -> frame.append(machine.getInsertedValue());
+            case PRODUCT_BOUGHT -> frame.append("THANK YOU");
+            case INSUFFICIENT_FUNDS -> frame.append("INSUFFICIENT FUNDS");
+            case CANT_MAKE_CHANGE -> frame.append("CAN'T MAKE CHANGE, INSERT EXACT VALUE");
         }
+        frame.append('\n');
+        flush();
     }
 
     public void displayChangeTray() {
-        System.out.println("Change:");
-        for (String column : new String[]{"name", "coins"}) {
-            System.out.printf("%-9s", column);
+        if (changeTray.isStale(machine.changeTrayVersion())) {
+            StringBuilder text = changeTray.begin();
+            text.append("Change:\n");
+            header(text, CHANGE_COLUMNS);
+            for (int coin = 0; coin < catalog.coinCount(); coin++) {
+                int count = machine.changeTrayCount(coin);
+                if (count == 0) continue;
+                column(text, catalog.coinName(coin));
+                column(text, count);
+                text.append('\n');
+            }
+            text.append('\n');
         }
-        System.out.println();
-        for (Coin coin : Coin.values()) {
-            if (coin.equals(Coin.INVALID)) continue;
-            if (machine.getChangeTray().getOrDefault(coin, 0) == 0) continue;
-            System.out.println(String.format("%-9s", coin.toString())
-                    + String.format("%-9s", machine.getChangeTray().get(coin))
-            );
-        }
-        System.out.println();
+        frame.append(changeTray.text);
     }
 
     public void displayProductTray() {
-        System.out.println("Bought products:");
-        for (String column : new String[]{"name", "cost", "bought"}) {
-            System.out.printf("%-9s", column);
+        if (productTray.isStale(machine.productTrayVersion())) {
+            StringBuilder text = productTray.begin();
+            text.append("Bought products:\n");
+            header(text, TRAY_COLUMNS);
+            for (int product = 0; product < catalog.productCount(); product++) {
+                int count = machine.productTrayCount(product);
+                if (count == 0) continue;
+                column(text, catalog.productName(product));
+                column(text, catalog.productCost(product));
+                column(text, count);
+                text.append('\n');
+            }
+            text.append('\n');
+        }
+        frame.append(productTray.text);
+    }
+
+    public void flush() {
+        int length = frame.length();
+        if (length == 0) return;
+        if (bytes.length < length) bytes = new byte[Math.max(length, 2 * bytes.length)];
+        for (int i = 0; i < length; i++) {
+            char c = frame.charAt(i);
+            if (c > 0x7F) {
+                out.print(frame);
+                out.flush();
+                frame.setLength(0);
+                return;
+            }
+            bytes[i] = (byte) c;
+        }
+        out.write(bytes, 0, length);
+        out.flush();
+        frame.setLength(0);
+    }
+
+    private static void header(StringBuilder text, String[] columns) {
+        for (String column : columns) {
+            column(text, column);
+        }
+        text.append('\n');
+    }
+
+    private static void column(StringBuilder text, String value) {
+        text.append(value);
+        pad(text, value.length());
+    }
+
+    private static void column(StringBuilder text, int value) {
+        int start = text.length();
+        text.append(value);
+        pad(text, text.length() - start);
+    }
+
+    private static void pad(StringBuilder text, int written) {
+        for (int i = written; i < COLUMN_WIDTH; i++) {
+            text.append(' ');
+        }
+    }
+
+    @Override
+    public void close() {
+        events.close();
+    }
+
+    private class StateTracker implements Flow.Subscriber<MachineEvent> {
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(MachineEvent event) {
+            if (event.type().equals(MachineEvent.Type.STATE_CHANGED)) state = event.to();
         }
-        System.out.println();
-        for (Product product : Product.values()) {
-            if (machine.getProductTray().getOrDefault(product, 0) == 0) continue;
-            System.out.println(String.format("%-9s", product.toString())
-                    + String.format("%-9s", product.cost)
-                    + String.format("%-9s", machine.getProductTray().get(product))
-            );
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+
+    private static class Section {
+        private final StringBuilder text = new StringBuilder(256);
+        private long version = -1;
+
+        boolean isStale(long currentVersion) {
+            if (version == currentVersion) return false;
+            version = currentVersion;
+            return true;
+        }
+
+        StringBuilder begin() {
+            text.setLength(0);
+            return text;
         }
-        System.out.println();
     }
 }
@@ -0,0 +1,52 @@
+package com.codecool.machine.vending_machine;
+
+class ExhaustiveChangeStrategy implements ChangeStrategy {
+    private final int[] denominations;
+    private final int[] values;
+    private final int[] maxima;
+    private final int[] chosen;
+
+    ExhaustiveChangeStrategy() {
+        this(Catalog.standard());
+    }
+
+    ExhaustiveChangeStrategy(Catalog catalog) {
+        denominations = catalog.denominations().ids;
+        values = catalog.denominations().values;
+        maxima = new int[denominations.length];
+        chosen = new int[denominations.length];
+    }
+
+    @Override
+    public boolean computeChange(int rest, Inventory machineCoins, Inventory changeToReturn) {
+        changeToReturn.clear();
+
+        if (rest == 0) return true;
+
+        int reachable = 0;
+        for (int i = 0; i < denominations.length; i++) {
+            maxima[i] = Math.max(0, Math.min(machineCoins.get(denominations[i]), rest / values[i]));
+            reachable += maxima[i] * values[i];
+        }
+        if (reachable < rest || !findChange(0, rest)) return false;
+
+        for (int i = 0; i < denominations.length; i++) {
+            changeToReturn.set(denominations[i], chosen[i]);
+        }
+        return true;
+    }
+
+    private boolean findChange(int denomination, int rest) {
+        int value = values[denomination];
+        if (denomination == values.length - 1) {
+            if (rest % value != 0 || rest / value > maxima[denomination]) return false;
+            chosen[denomination] = rest / value;
+            return true;
+        }
+        for (int count = Math.min(maxima[denomination], rest / value); count >= 0; count--) {
+            chosen[denomination] = count;
+            if (findChange(denomination + 1, rest - count * value)) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,237 @@
+package com.codecool.machine.vending_machine;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntPredicate;
+
+public class Fleet {
+    static final int LEAF_SIZE = 1 << 14;
+    static final int MAX_CHANGE_TABLE = 1 << 20;
+
+    private final Catalog catalog;
+    private final Denominations denominations;
+    private final int[][] coins;
+    private final int[][] products;
+    private final ForkJoinPool pool;
+    private int size = 0;
+
+    public Fleet(int capacity) {
+        this(Catalog.standard(), capacity);
+    }
+
+    public Fleet(Catalog catalog, int capacity) {
+        this(catalog, capacity, ForkJoinPool.commonPool());
+    }
+
+    Fleet(int capacity, ForkJoinPool pool) {
+        this(Catalog.standard(), capacity, pool);
+    }
+
+    Fleet(Catalog catalog, int capacity, ForkJoinPool pool) {
+        this.catalog = catalog;
+        this.pool = pool;
+        denominations = catalog.denominations();
+        coins = new int[catalog.coinCount() + 1][capacity];
+        products = new int[catalog.productCount()][capacity];
+    }
+
+    public int add(VendingMachine machine) {
+        if (size == coins[0].length) {
+            for (int i = 0; i < coins.length; i++) coins[i] = Arrays.copyOf(coins[i], 2 * size + 1);
+            for (int i = 0; i < products.length; i++) products[i] = Arrays.copyOf(products[i], 2 * size + 1);
+        }
+        int id = size++;
+        update(id, machine);
+        return id;
+    }
+
+    public void update(int id, VendingMachine machine) {
+        checkId(id);
+        if (machine.catalog() != catalog) {
+            throw new IllegalArgumentException("Machine uses a different catalog than this fleet");
+        }
+        for (int coin = 0; coin < coins.length; coin++) coins[coin][id] = machine.coinCount(coin);
+        for (int product = 0; product < products.length; product++) products[product][id] = machine.productCount(product);
+    }
+
+    public void setCoins(int id, Coin coin, int count) {
+        setCoins(id, coinId(coin), count);
+    }
+
+    public void setCoins(int id, int coin, int count) {
+        checkId(id);
+        coins[coin][id] = count;
+    }
+
+    public void setProducts(int id, Product product, int count) {
+        setProducts(id, productId(product), count);
+    }
+
+    public void setProducts(int id, int product, int count) {
+        checkId(id);
+        products[product][id] = count;
+    }
+
+    public int getCoins(int id, Coin coin) {
+        return getCoins(id, coinId(coin));
+    }
+
+    public int getCoins(int id, int coin) {
+        checkId(id);
+        return coins[coin][id];
+    }
+
+    public int getProducts(int id, Product product) {
+        return getProducts(id, productId(product));
+    }
+
+    public int getProducts(int id, int product) {
+        checkId(id);
+        return products[product][id];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void checkId(int id) {
+        if (id < 0 || id >= size) throw new IndexOutOfBoundsException("No machine " + id + " in fleet of " + size);
+    }
+
+    private int coinId(Coin coin) {
+        int id = coin.equals(Coin.INVALID) ? catalog.coinCount() : catalog.coinId(coin);
+        if (id < 0) throw new IllegalArgumentException("Catalog has no coin " + coin);
+        return id;
+    }
+
+    private int productId(Product product) {
+        int id = catalog.productId(product);
+        if (id < 0) throw new IllegalArgumentException("Catalog has no product " + product);
+        return id;
+    }
+
+    public long totalCoins(Coin coin) {
+        return totalCoins(coinId(coin));
+    }
+
+    public long totalCoins(int coin) {
+        int[] column = coins[coin];
+        return pool.invoke(new Sum(column, 0, size));
+    }
+
+    public long totalCash(Coin coin) {
+        return coin.equals(Coin.INVALID) ? 0 : totalCash(coinId(coin));
+    }
+
+    public long totalCash(int coin) {
+        return coin == catalog.coinCount() ? 0 : totalCoins(coin) * catalog.coinValue(coin);
+    }
+
+    public int[] soldOut(Product product) {
+        return soldOut(productId(product));
+    }
+
+    public int[] soldOut(int product) {
+        int[] column = products[product];
+        return pool.invoke(new Select(id -> column[id] <= 0, 0, size));
+    }
+
+    public int[] cantMakeChange(int price, int paid) {
+        int amount = paid - price;
+        if (amount <= 0) return new int[0];
+        int kinds = denominations.size();
+        int[][] columns = new int[kinds][];
+        int[] maxima = new int[kinds];
+        long tableSize = 1;
+        for (int i = 0; i < kinds; i++) {
+            columns[i] = coins[denominations.ids[i]];
+            maxima[i] = amount / denominations.values[i];
+            tableSize *= maxima[i] + 1;
+            if (tableSize > MAX_CHANGE_TABLE) break;
+        }
+        if (tableSize * denominations.scratch(amount).length > MAX_CHANGE_TABLE) {
+            return pool.invoke(new Select(id -> {
+                int[] counts = new int[kinds];
+                for (int i = 0; i < kinds; i++) counts[i] = columns[i][id];
+                return !denominations.canMake(amount, counts, denominations.scratch(amount));
+            }, 0, size));
+        }
+
+        boolean[] unable = new boolean[(int) tableSize];
+        int[] counts = new int[kinds];
+        boolean[] reachable = denominations.scratch(amount);
+        for (int index = 0; index < unable.length; index++) {
+            unable[index] = !denominations.canMake(amount, counts, reachable);
+            for (int i = kinds - 1; i >= 0 && ++counts[i] > maxima[i]; i--) counts[i] = 0;
+        }
+        return pool.invoke(new Select(id -> {
+            int index = 0;
+            for (int i = 0; i < kinds; i++) index = index * (maxima[i] + 1) + clamp(columns[i][id], maxima[i]);
+            return unable[index];
+        }, 0, size));
+    }
+
+    private static int clamp(int count, int max) {
+        return Math.max(0, Math.min(count, max));
+    }
+
+    @SuppressWarnings("serial")
+    private static class Sum extends RecursiveTask<Long> {
+        private final int[] column;
+        private final int from;
+        private final int to;
+
+        Sum(int[] column, int from, int to) {
+            this.column = column;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from <= LEAF_SIZE) {
+                long sum = 0;
+                for (int i = from; i < to; i++) sum += column[i];
+                return sum;
+            }
+            int middle = (from + to) >>> 1;
+            Sum right = new Sum(column, middle, to);
+            right.fork();
+            return new Sum(column, from, middle).compute() + right.join();
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static class Select extends RecursiveTask<int[]> {
+        private final IntPredicate matches;
+        private final int from;
+        private final int to;
+
+        Select(IntPredicate matches, int from, int to) {
+            this.matches = matches;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from <= LEAF_SIZE) {
+                int[] ids = new int[to - from];
+                int found = 0;
+                for (int i = from; i < to; i++) {
+                    if (matches.test(i)) ids[found++] = i;
+                }
+                return Arrays.copyOf(ids, found);
+            }
+            int middle = (from + to) >>> 1;
+            Select right = new Select(matches, middle, to);
+            right.fork();
+            int[] left = new Select(matches, from, middle).compute();
+            int[] rightIds = right.join();
+            int[] ids = Arrays.copyOf(left, left.length + rightIds.length);
+            System.arraycopy(rightIds, 0, ids, left.length, rightIds.length);
+            return ids;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.codecool.machine.vending_machine;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+final class Inventory {
+    private final int[] counts;
+    private long version = 0;
+
+    Inventory(int size) {
+        counts = new int[size];
+    }
+
+    int get(int id) {
+        return counts[id];
+    }
+
+    void set(int id, int count) {
+        counts[id] = count;
+        version++;
+    }
+
+    void add(int id, int delta) {
+        counts[id] += delta;
+        version++;
+    }
+
+    void addAll(Inventory other) {
+        version++;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+    }
+
+    void subtractAll(Inventory other) {
+        version++;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] -= other.counts[i];
+        }
+    }
+
+    boolean covers(Inventory other) {
+        for (int i = 0; i < counts.length; i++) {
+            if (other.counts[i] > 0 && counts[i] < other.counts[i]) return false;
+        }
+        return true;
+    }
+
+    void clear() {
+        version++;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = 0;
+        }
+    }
+
+    void writeTo(ByteBuffer buffer) {
+        for (int count : counts) {
+            buffer.putInt(count);
+        }
+    }
+
+    void readFrom(ByteBuffer buffer) {
+        version++;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buffer.getInt();
+        }
+    }
+
+    int size() {
+        return counts.length;
+    }
+
+    long version() {
+        return version;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(counts);
+    }
+
+    <E extends Enum<E>> Map<E, Integer> view(Class<E> type, int[] ids) {
+        return view(type, ids, this::set);
+    }
+
+    <E extends Enum<E>> Map<E, Integer> view(Class<E> type, int[] ids, Setter setter) {
+        return new View<>(type, ids, setter);
+    }
+
+    interface Setter {
+        void set(int id, int count);
+    }
+
+    private final class View<E extends Enum<E>> extends AbstractMap<E, Integer> {
+        private final Class<E> type;
+        private final int[] ids;
+        private final E[] keys;
+        private final Setter setter;
+
+        private final Set<Entry<E, Integer>> entries = new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<E, Integer>> iterator() {
+                return new Iterator<>() {
+                    private int next = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < keys.length;
+                    }
+
+                    @Override
+                    public Entry<E, Integer> next() {
+                        if (!hasNext()) throw new NoSuchElementException();
+                        E key = keys[next++];
+                        return new SimpleImmutableEntry<>(key, counts[ids[key.ordinal()]]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return keys.length;
+            }
+        };
+
+        View(Class<E> type, int[] ids, Setter setter) {
+            this.type = type;
+            this.ids = ids;
+            this.setter = setter;
+            E[] constants = type.getEnumConstants();
+            int present = 0;
+            for (E constant : constants) {
+                if (ids[constant.ordinal()] >= 0) constants[present++] = constant;
+            }
+            keys = Arrays.copyOf(constants, present);
+        }
+
+        @Override
+        public Set<Entry<E, Integer>> entrySet() {
+            return entries;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return id(key) >= 0;
+        }
+
+        @Override
+        public Integer get(Object key) {
+            int id = id(key);
+            return id >= 0 ? counts[id] : null;
+        }
+
+        @Override
+        public Integer getOrDefault(Object key, Integer defaultValue) {
+            int id = id(key);
+            return id >= 0 ? counts[id] : defaultValue;
+        }
+
+        @Override
+        public Integer put(E key, Integer count) {
+            int id = id(key);
+            if (id < 0) throw new IllegalArgumentException("Catalog has no " + key);
+            int previous = counts[id];
+            setter.set(id, count);
+            return previous;
+        }
+
+        @Override
+        public int size() {
+            return keys.length;
+        }
+
+        private int id(Object key) {
+            return type.isInstance(key) ? ids[type.cast(key).ordinal()] : -1;
+        }
+    }
+}
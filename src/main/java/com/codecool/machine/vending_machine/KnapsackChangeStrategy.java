@@ -0,0 +1,80 @@
+package com.codecool.machine.vending_machine;
+
+import java.util.Arrays;
+
+class KnapsackChangeStrategy implements ChangeStrategy {
+    private final int[] denominations;
+    private final int[] values;
+    private final int[] builtCounts;
+    private final int[] counts;
+    private boolean[][] reachable;
+    private int[] streak;
+    private int capacity = -1;
+
+    KnapsackChangeStrategy() {
+        this(Catalog.standard());
+    }
+
+    KnapsackChangeStrategy(Catalog catalog) {
+        denominations = catalog.denominations().ids;
+        values = catalog.denominations().values;
+        builtCounts = new int[denominations.length];
+        counts = new int[denominations.length];
+    }
+
+    @Override
+    public boolean computeChange(int rest, Inventory machineCoins, Inventory changeToReturn) {
+        changeToReturn.clear();
+
+        if (rest == 0) return true;
+
+        if (rest > capacity) {
+            capacity = Math.max(rest, 2 * capacity);
+            reachable = new boolean[denominations.length + 1][capacity + 1];
+            streak = new int[capacity + 1];
+            Arrays.fill(builtCounts, -1);
+        }
+        for (int i = 0; i < denominations.length; i++) {
+            counts[i] = Math.max(0, Math.min(machineCoins.get(denominations[i]), capacity / values[i]));
+        }
+        if (!Arrays.equals(counts, builtCounts)) rebuild();
+        if (!reachable[0][rest]) return false;
+
+        for (int i = 0; i < denominations.length; i++) {
+            int value = values[i];
+            int used = Math.min(counts[i], rest / value);
+            while (!reachable[i + 1][rest - used * value]) {
+                used--;
+            }
+            changeToReturn.set(denominations[i], used);
+            rest -= used * value;
+        }
+        return true;
+    }
+
+    private void rebuild() {
+        System.arraycopy(counts, 0, builtCounts, 0, counts.length);
+
+        boolean[] smallest = reachable[denominations.length];
+        Arrays.fill(smallest, false);
+        smallest[0] = true;
+
+        for (int i = denominations.length - 1; i >= 0; i--) {
+            boolean[] withSmaller = reachable[i + 1];
+            boolean[] current = reachable[i];
+            int value = values[i];
+            int count = counts[i];
+            for (int amount = 0; amount <= capacity; amount++) {
+                if (withSmaller[amount]) {
+                    current[amount] = true;
+                    streak[amount] = 0;
+                } else if (amount >= value && current[amount - value] && streak[amount - value] < count) {
+                    current[amount] = true;
+                    streak[amount] = streak[amount - value] + 1;
+                } else {
+                    current[amount] = false;
+                }
+            }
+        }
+    }
+}
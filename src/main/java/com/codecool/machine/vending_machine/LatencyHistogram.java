@@ -0,0 +1,70 @@
+package com.codecool.machine.vending_machine;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+class LatencyHistogram {
+    static final int SUB_BUCKET_BITS = 5;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int BUCKETS = 2 * SUB_BUCKETS + (63 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    void record(long nanos) {
+        counts.incrementAndGet(index(Math.max(0, nanos)));
+    }
+
+    Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+        }
+        return new Snapshot(copy);
+    }
+
+    static int index(long value) {
+        if (value < 2 * SUB_BUCKETS) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return 2 * SUB_BUCKETS + (shift - 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    static long lowestValue(int index) {
+        if (index < 2 * SUB_BUCKETS) return index;
+        int shift = (index - 2 * SUB_BUCKETS) / SUB_BUCKETS + 1;
+        long subBucket = (index - 2 * SUB_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+        return subBucket << shift;
+    }
+
+    static class Snapshot {
+        private final long[] counts;
+        private final long count;
+
+        Snapshot(long[] counts) {
+            this.counts = counts;
+            long total = 0;
+            for (long bucket : counts) total += bucket;
+            count = total;
+        }
+
+        long count() {
+            return count;
+        }
+
+        long percentile(double percentile) {
+            if (count == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) return lowestValue(i);
+            }
+            return lowestValue(counts.length - 1);
+        }
+
+        long max() {
+            for (int i = counts.length - 1; i >= 0; i--) {
+                if (counts[i] > 0) return lowestValue(i);
+            }
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.codecool.machine.vending_machine;
+
+public final class MachineEvent {
+    public enum Type {
+        COIN_ACCEPTED, COIN_REJECTED, PRODUCT_SOLD, CHANGE_DISPENSED, COINS_RETURNED, CHANGE_TAKEN, PRODUCT_TAKEN,
+        STATE_CHANGED
+    }
+
+    private static final Type[] TYPES = Type.values();
+    private static final MachineState[] STATES = MachineState.values();
+
+    private final Catalog catalog;
+    private final Type type;
+    private final int first;
+    private final int second;
+    private final int count;
+
+    private MachineEvent(long encoded, Catalog catalog) {
+        this.catalog = catalog;
+        type = TYPES[(int) (encoded >>> 56)];
+        first = (int) (encoded >>> 40) & 0xffff;
+        second = (int) (encoded >>> 32) & 0xff;
+        count = (int) encoded;
+    }
+
+    static long encode(Type type, int first, int second, int count) {
+        return (long) type.ordinal() << 56 | (long) first << 40 | (long) second << 32 | (count & 0xffffffffL);
+    }
+
+    static MachineEvent decode(long encoded, Catalog catalog) {
+        return new MachineEvent(encoded, catalog);
+    }
+
+    public Type type() {
+        return type;
+    }
+
+    public int coinId() {
+        return type.equals(Type.COIN_ACCEPTED) || type.equals(Type.CHANGE_DISPENSED) ? first : -1;
+    }
+
+    public int productId() {
+        return type.equals(Type.PRODUCT_SOLD) ? first : -1;
+    }
+
+    public Coin coin() {
+        return catalog.coin(coinId());
+    }
+
+    public Product product() {
+        return catalog.product(productId());
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public MachineState from() {
+        return type.equals(Type.STATE_CHANGED) ? STATES[first] : null;
+    }
+
+    public MachineState to() {
+        return type.equals(Type.STATE_CHANGED) ? STATES[second] : null;
+    }
+
+    @Override
+    public String toString() {
+        return switch (type) {
+            case COIN_ACCEPTED, CHANGE_DISPENSED -> type + " " + count + " x " + catalog.coinName(first);
+            case PRODUCT_SOLD -> type + " " + catalog.productName(first);
+            case STATE_CHANGED -> type + " " + from() + " -> " + to();
+            default -> type.toString();
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MachineEvent)) return false;
+        MachineEvent other = (MachineEvent) o;
+        return type.equals(other.type) && first == other.first && second == other.second && count == other.count;
+    }
+
+    @Override
+    public int hashCode() {
+        return ((type.hashCode() * 31 + first) * 31 + second) * 31 + count;
+    }
+}
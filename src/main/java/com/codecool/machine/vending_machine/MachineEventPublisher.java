@@ -0,0 +1,239 @@
+package com.codecool.machine.vending_machine;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class MachineEventPublisher implements Flow.Publisher<MachineEvent>, MachineListener, AutoCloseable {
+    static final int DEFAULT_CAPACITY = 1024;
+
+    private final VendingMachine machine;
+    private final Executor executor;
+    private final int capacity;
+    private volatile RingSubscription[] subscriptions = new RingSubscription[0];
+    private volatile boolean closed;
+
+    private MachineEventPublisher(VendingMachine machine, Executor executor, int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two, got " + capacity);
+        }
+        this.machine = machine;
+        this.executor = executor;
+        this.capacity = capacity;
+    }
+
+    public static MachineEventPublisher attach(VendingMachine machine) {
+        return attach(machine, ForkJoinPool.commonPool(), DEFAULT_CAPACITY);
+    }
+
+    public static MachineEventPublisher attach(VendingMachine machine, Executor executor, int capacity) {
+        MachineEventPublisher publisher = new MachineEventPublisher(machine, executor, capacity);
+        machine.addListener(publisher);
+        return publisher;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super MachineEvent> subscriber) {
+        RingSubscription subscription = new RingSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        synchronized (this) {
+            if (closed) {
+                subscription.complete();
+                return;
+            }
+            RingSubscription[] current = subscriptions;
+            RingSubscription[] grown = Arrays.copyOf(current, current.length + 1);
+            grown[current.length] = subscription;
+            subscriptions = grown;
+        }
+    }
+
+    private synchronized void remove(RingSubscription subscription) {
+        RingSubscription[] current = subscriptions;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == subscription) {
+                RingSubscription[] remaining = new RingSubscription[current.length - 1];
+                System.arraycopy(current, 0, remaining, 0, i);
+                System.arraycopy(current, i + 1, remaining, i, remaining.length - i);
+                subscriptions = remaining;
+                return;
+            }
+        }
+    }
+
+    public long dropped() {
+        long dropped = 0;
+        for (RingSubscription subscription : subscriptions) dropped += subscription.dropped;
+        return dropped;
+    }
+
+    @Override
+    public void close() {
+        machine.removeListener(this);
+        RingSubscription[] current;
+        synchronized (this) {
+            closed = true;
+            current = subscriptions;
+            subscriptions = new RingSubscription[0];
+        }
+        for (RingSubscription subscription : current) subscription.complete();
+    }
+
+    private void publish(long event) {
+        for (RingSubscription subscription : subscriptions) subscription.offer(event);
+    }
+
+    private void flush() {
+        for (RingSubscription subscription : subscriptions) subscription.flush();
+    }
+
+    @Override
+    public void coinInserted(int coin) {
+        publish(MachineEvent.encode(MachineEvent.Type.COIN_ACCEPTED, coin, 0, 1));
+        flush();
+    }
+
+    @Override
+    public void coinRejected() {
+        publish(MachineEvent.encode(MachineEvent.Type.COIN_REJECTED, 0, 0, 1));
+        flush();
+    }
+
+    @Override
+    public void productSold(int product) {
+        publish(MachineEvent.encode(MachineEvent.Type.PRODUCT_SOLD, product, 0, 1));
+    }
+
+    @Override
+    public void changeDispensed(int coin, int count) {
+        publish(MachineEvent.encode(MachineEvent.Type.CHANGE_DISPENSED, coin, 0, count));
+    }
+
+    @Override
+    public void coinsReturned() {
+        publish(MachineEvent.encode(MachineEvent.Type.COINS_RETURNED, 0, 0, 0));
+        flush();
+    }
+
+    @Override
+    public void changeTaken() {
+        publish(MachineEvent.encode(MachineEvent.Type.CHANGE_TAKEN, 0, 0, 0));
+        flush();
+    }
+
+    @Override
+    public void productTaken() {
+        publish(MachineEvent.encode(MachineEvent.Type.PRODUCT_TAKEN, 0, 0, 0));
+        flush();
+    }
+
+    @Override
+    public void stateChanged(MachineState from, MachineState to) {
+        publish(MachineEvent.encode(MachineEvent.Type.STATE_CHANGED, from.ordinal(), to.ordinal(), 0));
+        flush();
+    }
+
+    @Override
+    public void selectionFinished(MachineState outcome) {
+        flush();
+    }
+
+    private final class RingSubscription implements Flow.Subscription, Runnable {
+        private final Flow.Subscriber<? super MachineEvent> subscriber;
+        private final long[] ring = new long[capacity];
+        private final int mask = capacity - 1;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger work = new AtomicInteger();
+        private final AtomicLong head = new AtomicLong();
+        private final AtomicLong tail = new AtomicLong();
+        private volatile long dropped;
+        private volatile boolean completed;
+        private volatile boolean cancelled;
+        private volatile Throwable error;
+
+        RingSubscription(Flow.Subscriber<? super MachineEvent> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        void offer(long event) {
+            long position = tail.get();
+            long queued = position - head.get();
+            if (queued == capacity) {
+                dropped = dropped + 1;
+                return;
+            }
+            ring[(int) position & mask] = event;
+            tail.lazySet(position + 1);
+            if (queued == capacity >> 1) signal();
+        }
+
+        void flush() {
+            if (head.get() != tail.get()) signal();
+        }
+
+        void complete() {
+            completed = true;
+            signal();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("Non-positive request: " + n);
+                completed = true;
+            } else {
+                demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            }
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            remove(this);
+        }
+
+        private void signal() {
+            if (work.getAndIncrement() == 0) executor.execute(this);
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                if (cancelled) return;
+                if (error != null) {
+                    cancel();
+                    subscriber.onError(error);
+                    return;
+                }
+                long requested = demand.get();
+                long emitted = 0;
+                long position = head.get();
+                long limit = tail.get();
+                while (emitted != requested && position != limit && !cancelled) {
+                    MachineEvent event = MachineEvent.decode(ring[(int) position & mask], machine.catalog());
+                    head.lazySet(++position);
+                    emitted++;
+                    try {
+                        subscriber.onNext(event);
+                    } catch (Throwable failure) {
+                        cancel();
+                        subscriber.onError(failure);
+                        return;
+                    }
+                }
+                if (emitted != 0 && requested != Long.MAX_VALUE) demand.addAndGet(-emitted);
+                if (completed && head.get() == tail.get() && !cancelled) {
+                    cancelled = true;
+                    subscriber.onComplete();
+                    return;
+                }
+                missed = work.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.codecool.machine.vending_machine;
+
+interface MachineListener {
+    default void coinInserted(int coin) {
+    }
+
+    default void coinRejected() {
+    }
+
+    default void productSold(int product) {
+    }
+
+    default void changeDispensed(int coin, int count) {
+    }
+
+    default void selectionFinished(MachineState outcome) {
+    }
+
+    default void coinsReturned() {
+    }
+
+    default void changeTaken() {
+    }
+
+    default void productTaken() {
+    }
+
+    default void stateChanged(MachineState from, MachineState to) {
+    }
+
+    default void productStocked(int product, int count) {
+    }
+
+    default void coinsStocked(int coin, int count) {
+    }
+}
@@ -0,0 +1,48 @@
+package com.codecool.machine.vending_machine;
+
+interface MachineMetrics {
+    MachineMetrics DISABLED = new MachineMetrics() {
+        @Override
+        public long startTimer() {
+            return 0;
+        }
+
+        @Override
+        public void stateEntered(MachineState state) {
+        }
+
+        @Override
+        public void coinInserted(int coin, long start) {
+        }
+
+        @Override
+        public void productSelected(int product, MachineState state, long start) {
+        }
+
+        @Override
+        public void cartSelected(Inventory items, MachineState state, long start) {
+        }
+
+        @Override
+        public void changeComputed(long start) {
+        }
+
+        @Override
+        public void flush() {
+        }
+    };
+
+    long startTimer();
+
+    void stateEntered(MachineState state);
+
+    void coinInserted(int coin, long start);
+
+    void productSelected(int product, MachineState state, long start);
+
+    void cartSelected(Inventory items, MachineState state, long start);
+
+    void changeComputed(long start);
+
+    void flush();
+}
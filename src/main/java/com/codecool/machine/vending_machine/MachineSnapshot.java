@@ -0,0 +1,106 @@
+package com.codecool.machine.vending_machine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+public final class MachineSnapshot {
+    static final int MAGIC = 0x564d534e;
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 32;
+
+    private static final int CHECKSUM_POSITION = 24;
+
+    private MachineSnapshot() {
+    }
+
+    static void save(Path file, VendingMachine machine, long journalOffset) throws IOException {
+        save(file, List.of(machine), journalOffset);
+    }
+
+    static long load(Path file, VendingMachine machine) throws IOException {
+        return load(file, List.of(machine));
+    }
+
+    public static void saveAll(Path file, List<VendingMachine> machines) throws IOException {
+        save(file, machines, 0);
+    }
+
+    public static void loadAll(Path file, List<VendingMachine> machines) throws IOException {
+        load(file, machines);
+    }
+
+    private static void save(Path file, List<VendingMachine> machines, long journalOffset) throws IOException {
+        int recordSize = recordSize(machines);
+        long size = HEADER_SIZE + (long) recordSize * machines.size();
+        if (size > Integer.MAX_VALUE) throw new IllegalArgumentException("Too many machines: " + machines.size());
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(journalOffset)
+                    .putInt(machines.size()).putInt(recordSize).putInt(0).putInt(0);
+            for (VendingMachine machine : machines) machine.writeTo(buffer);
+            buffer.putInt(CHECKSUM_POSITION, checksum(buffer));
+            buffer.force();
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static long load(Path file, List<VendingMachine> machines) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("Not a vending machine snapshot: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC) throw new IOException("Not a vending machine snapshot: " + file);
+            int version = buffer.getInt();
+            if (version != VERSION) throw new IOException("Unsupported snapshot version " + version + ": " + file);
+            long journalOffset = buffer.getLong();
+            int count = buffer.getInt();
+            int recordSize = buffer.getInt();
+            if (size != HEADER_SIZE + (long) count * recordSize) {
+                throw new IOException("Snapshot layout does not match this build: " + file);
+            }
+            if (buffer.getInt(CHECKSUM_POSITION) != checksum(buffer)) {
+                throw new IOException("Snapshot checksum mismatch: " + file);
+            }
+            if (count != machines.size()) {
+                throw new IOException("Snapshot holds " + count + " machines, expected " + machines.size());
+            }
+            if (count > 0 && recordSize != recordSize(machines)) {
+                throw new IOException("Snapshot layout does not match the machines' catalog: " + file);
+            }
+            buffer.position(HEADER_SIZE);
+            for (VendingMachine machine : machines) machine.readFrom(buffer);
+            return journalOffset;
+        }
+    }
+
+    private static int recordSize(List<VendingMachine> machines) {
+        if (machines.isEmpty()) return 0;
+        int recordSize = VendingMachine.recordSize(machines.get(0).catalog());
+        for (VendingMachine machine : machines) {
+            if (VendingMachine.recordSize(machine.catalog()) != recordSize) {
+                throw new IllegalArgumentException("Machines in one snapshot must share a catalog layout");
+            }
+        }
+        return recordSize;
+    }
+
+    private static int checksum(ByteBuffer buffer) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.duplicate().position(0).limit(CHECKSUM_POSITION));
+        crc.update(buffer.duplicate().position(HEADER_SIZE).limit(buffer.capacity()));
+        return (int) crc.getValue();
+    }
+}
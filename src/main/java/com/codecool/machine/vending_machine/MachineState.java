@@ -1,5 +1,5 @@
 package com.codecool.machine.vending_machine;
 
-enum MachineState {
+public enum MachineState {
     INSERT_COIN, PRODUCT_BOUGHT, COIN_INSERTED, SOLD_OUT, INSUFFICIENT_FUNDS, CANT_MAKE_CHANGE
 }
@@ -0,0 +1,90 @@
+package com.codecool.machine.vending_machine;
+
+import java.io.IOException;
+
+public class MetricsSnapshot {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final Catalog catalog;
+    private final long[] states;
+    private final long[] coins;
+    private final long[] sales;
+    private final LatencyHistogram.Snapshot insertLatency;
+    private final LatencyHistogram.Snapshot selectLatency;
+    private final LatencyHistogram.Snapshot changeLatency;
+
+    MetricsSnapshot(Catalog catalog, long[] states, long[] coins, long[] sales, LatencyHistogram.Snapshot insertLatency,
+                    LatencyHistogram.Snapshot selectLatency, LatencyHistogram.Snapshot changeLatency) {
+        this.catalog = catalog;
+        this.states = states;
+        this.coins = coins;
+        this.sales = sales;
+        this.insertLatency = insertLatency;
+        this.selectLatency = selectLatency;
+        this.changeLatency = changeLatency;
+    }
+
+    long stateCount(MachineState state) {
+        return states[state.ordinal()];
+    }
+
+    public long coinCount(Coin coin) {
+        int id = coin.equals(Coin.INVALID) ? catalog.coinCount() : catalog.coinId(coin);
+        return id >= 0 ? coins[id] : 0;
+    }
+
+    public long coinCount(int coin) {
+        return coins[coin];
+    }
+
+    public long sales(Product product) {
+        int id = catalog.productId(product);
+        return id >= 0 ? sales[id] : 0;
+    }
+
+    public long sales(int product) {
+        return sales[product];
+    }
+
+    LatencyHistogram.Snapshot insertLatency() {
+        return insertLatency;
+    }
+
+    LatencyHistogram.Snapshot selectLatency() {
+        return selectLatency;
+    }
+
+    LatencyHistogram.Snapshot changeLatency() {
+        return changeLatency;
+    }
+
+    public void export(Appendable out) throws IOException {
+        for (MachineState state : MachineState.values()) {
+            counter(out, "vending_state_total", "state", state.name(), states[state.ordinal()]);
+        }
+        for (int coin = 0; coin < catalog.coinCount(); coin++) {
+            counter(out, "vending_coins_total", "coin", catalog.coinName(coin), coins[coin]);
+        }
+        counter(out, "vending_coins_total", "coin", Coin.INVALID.name(), coins[catalog.coinCount()]);
+        for (int product = 0; product < catalog.productCount(); product++) {
+            counter(out, "vending_sales_total", "product", catalog.productName(product), sales[product]);
+        }
+        latency(out, "vending_insert_coin_nanos", insertLatency);
+        latency(out, "vending_select_product_nanos", selectLatency);
+        latency(out, "vending_compute_change_nanos", changeLatency);
+    }
+
+    private static void counter(Appendable out, String name, String label, String value, long count) throws IOException {
+        out.append(name).append('{').append(label).append("=\"").append(value).append("\"} ")
+                .append(Long.toString(count)).append('\n');
+    }
+
+    private static void latency(Appendable out, String name, LatencyHistogram.Snapshot histogram) throws IOException {
+        for (double percentile : PERCENTILES) {
+            out.append(name).append("{quantile=\"").append(Double.toString(percentile / 100)).append("\"} ")
+                    .append(Long.toString(histogram.percentile(percentile))).append('\n');
+        }
+        out.append(name).append("_max ").append(Long.toString(histogram.max())).append('\n');
+        out.append(name).append("_count ").append(Long.toString(histogram.count())).append('\n');
+    }
+}
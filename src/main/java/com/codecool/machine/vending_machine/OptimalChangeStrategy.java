@@ -0,0 +1,110 @@
+package com.codecool.machine.vending_machine;
+
+import java.util.Arrays;
+
+class OptimalChangeStrategy implements ChangeStrategy {
+    private static final long SCALE = 1 << 10;
+    private static final long UNREACHABLE = Long.MAX_VALUE;
+
+    private final int[] units;
+    private final int unit;
+    private final int[] targets;
+    private final int[] counts;
+    private long[] best;
+    private long[] next;
+    private int[][] used;
+    private Inventory solvedCoins;
+    private long solvedVersion;
+    private int solvedAmount = -1;
+
+    private OptimalChangeStrategy(Catalog catalog, int[] targets) {
+        this.targets = targets;
+        unit = catalog.denominations().unit;
+        units = new int[catalog.coinCount()];
+        for (int id = 0; id < units.length; id++) units[id] = catalog.coinValue(id) / unit;
+        counts = new int[units.length];
+        grow(64);
+    }
+
+    static OptimalChangeStrategy fewestCoins() {
+        return fewestCoins(Catalog.standard());
+    }
+
+    static OptimalChangeStrategy fewestCoins(Catalog catalog) {
+        return new OptimalChangeStrategy(catalog, null);
+    }
+
+    static OptimalChangeStrategy balanced(Catalog catalog, int[] targets) {
+        return new OptimalChangeStrategy(catalog, Arrays.copyOf(targets, catalog.coinCount()));
+    }
+
+    @Override
+    public boolean computeChange(int rest, Inventory machineCoins, Inventory changeToReturn) {
+        changeToReturn.clear();
+
+        if (rest == 0) return true;
+        if (rest < 0 || rest % unit != 0) return false;
+
+        int amount = rest / unit;
+        if (machineCoins != solvedCoins || machineCoins.version() != solvedVersion || amount > solvedAmount) {
+            solve(machineCoins, amount);
+        }
+        if (best[amount] == UNREACHABLE) return false;
+
+        for (int i = units.length - 1; i >= 0; i--) {
+            int count = used[i][amount];
+            changeToReturn.set(i, count);
+            amount -= count * units[i];
+        }
+        return true;
+    }
+
+    private void solve(Inventory machineCoins, int amount) {
+        if (amount >= best.length) grow(Math.max(amount + 1, 2 * best.length));
+
+        Arrays.fill(best, 0, amount + 1, UNREACHABLE);
+        best[0] = 0;
+        for (int i = 0; i < units.length; i++) {
+            counts[i] = Math.max(0, machineCoins.get(i));
+            relax(i, amount);
+        }
+        solvedCoins = machineCoins;
+        solvedVersion = machineCoins.version();
+        solvedAmount = amount;
+    }
+
+    private void relax(int denomination, int amount) {
+        int step = units[denomination];
+        int[] choice = used[denomination];
+        for (int target = 0; target <= amount; target++) {
+            long lowest = best[target];
+            int lowestCount = 0;
+            long cost = 0;
+            for (int count = 1; count <= counts[denomination] && count * step <= target; count++) {
+                cost += marginalCost(denomination, count);
+                long previous = best[target - count * step];
+                if (previous != UNREACHABLE && previous + cost < lowest) {
+                    lowest = previous + cost;
+                    lowestCount = count;
+                }
+            }
+            next[target] = lowest;
+            choice[target] = lowestCount;
+        }
+        long[] swap = best;
+        best = next;
+        next = swap;
+    }
+
+    private long marginalCost(int denomination, int count) {
+        if (targets == null) return SCALE;
+        int remaining = counts[denomination] - count + 1;
+        return 1 + SCALE * (targets[denomination] + 1) / remaining;
+    }
+
+    private void grow(int capacity) {
+        best = new long[capacity];
+        next = new long[capacity];
+        used = new int[units.length][capacity];
+    }
+}
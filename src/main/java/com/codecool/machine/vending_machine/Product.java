@@ -6,6 +6,7 @@ public enum Product {
     final int cost;
 
     Product(int cost) {
-        this.cost = cost;
+        int id = Catalog.standard().productId(name());
+        this.cost = id >= 0 ? Catalog.standard().productCost(id) : cost;
     }
 }
@@ -0,0 +1,90 @@
+package com.codecool.machine.vending_machine;
+
+import java.util.Arrays;
+
+public final class RestockPlan {
+    private final Catalog catalog;
+    private final int[] machines;
+    private final double[] hoursLeft;
+    private final int[][] products;
+    private final int[][] coins;
+    private final long[] totalProducts;
+    private final long[] totalCoins;
+    private int stops = 0;
+
+    RestockPlan(Catalog catalog, int capacity) {
+        this.catalog = catalog;
+        totalProducts = new long[catalog.productCount()];
+        totalCoins = new long[catalog.coinCount()];
+        machines = new int[capacity];
+        hoursLeft = new double[capacity];
+        products = new int[capacity][];
+        coins = new int[capacity][];
+    }
+
+    void addStop(int machine, double hours, int[] productLoad, int[] coinLoad) {
+        machines[stops] = machine;
+        hoursLeft[stops] = hours;
+        products[stops] = productLoad;
+        coins[stops] = coinLoad;
+        for (int i = 0; i < productLoad.length; i++) totalProducts[i] += productLoad[i];
+        for (int i = 0; i < coinLoad.length; i++) totalCoins[i] += coinLoad[i];
+        stops++;
+    }
+
+    public int stops() {
+        return stops;
+    }
+
+    public int machine(int stop) {
+        return machines[checkStop(stop)];
+    }
+
+    public double hoursLeft(int stop) {
+        return hoursLeft[checkStop(stop)];
+    }
+
+    public int products(int stop, Product product) {
+        int id = catalog.productId(product);
+        return id >= 0 ? products(stop, id) : 0;
+    }
+
+    public int products(int stop, int product) {
+        return products[checkStop(stop)][product];
+    }
+
+    public int coins(int stop, Coin coin) {
+        int id = catalog.coinId(coin);
+        return id >= 0 ? coins(stop, id) : 0;
+    }
+
+    public int coins(int stop, int coin) {
+        return coins[checkStop(stop)][coin];
+    }
+
+    public long totalProducts(Product product) {
+        int id = catalog.productId(product);
+        return id >= 0 ? totalProducts[id] : 0;
+    }
+
+    public long totalCoins(Coin coin) {
+        int id = catalog.coinId(coin);
+        return id >= 0 ? totalCoins[id] : 0;
+    }
+
+    private int checkStop(int stop) {
+        if (stop < 0 || stop >= stops) throw new IndexOutOfBoundsException("No stop " + stop + " in plan of " + stops);
+        return stop;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("RestockPlan[");
+        for (int stop = 0; stop < stops; stop++) {
+            if (stop > 0) text.append(", ");
+            text.append(machines[stop]).append(String.format(" in %.1fh", hoursLeft[stop]));
+        }
+        return text.append(", products=").append(Arrays.toString(totalProducts))
+                .append(", coins=").append(Arrays.toString(totalCoins)).append(']').toString();
+    }
+}
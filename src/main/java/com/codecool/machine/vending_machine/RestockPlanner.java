@@ -0,0 +1,307 @@
+package com.codecool.machine.vending_machine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongSupplier;
+import java.util.stream.IntStream;
+
+public class RestockPlanner {
+    static final double RATE_WINDOW_HOURS = 24;
+    static final double HORIZON_HOURS = 4 * 7 * 24;
+    static final double RESOLUTION_HOURS = 1.0 / 60;
+
+    private static final int DOLLAR = 100;
+    private static final double MILLIS_PER_HOUR = 3_600_000;
+
+    private final Catalog catalog;
+    private final Denominations denominations;
+    private final int[] prices;
+    private final int[][] changeAmounts;
+    private final LongSupplier clock;
+    private final int parStock;
+    private final int[] coinFloat;
+    private final List<Tracker> trackers = new CopyOnWriteArrayList<>();
+
+    public RestockPlanner(int parStock, Map<Coin, Integer> coinFloat) {
+        this(parStock, coinFloat, System::currentTimeMillis);
+    }
+
+    public RestockPlanner(Catalog catalog, int parStock, int[] coinFloat) {
+        this(catalog, parStock, coinFloat, System::currentTimeMillis);
+    }
+
+    RestockPlanner(int parStock, Map<Coin, Integer> coinFloat, LongSupplier clock) {
+        this(Catalog.standard(), parStock, floatById(Catalog.standard(), coinFloat), clock);
+    }
+
+    RestockPlanner(Catalog catalog, int parStock, int[] coinFloat, LongSupplier clock) {
+        if (parStock < 0) throw new IllegalArgumentException("Negative par stock: " + parStock);
+        if (coinFloat.length != catalog.coinCount()) {
+            throw new IllegalArgumentException("Coin float needs " + catalog.coinCount() + " counts, got " + coinFloat.length);
+        }
+        this.catalog = catalog;
+        this.parStock = parStock;
+        this.clock = clock;
+        this.coinFloat = coinFloat.clone();
+        denominations = catalog.denominations();
+        prices = IntStream.range(0, catalog.productCount()).map(catalog::productCost).distinct().sorted().toArray();
+        changeAmounts = changeAmounts(prices, denominations.size() > 0 ? denominations.values[0] : DOLLAR);
+    }
+
+    private static int[] floatById(Catalog catalog, Map<Coin, Integer> coinFloat) {
+        int[] counts = new int[catalog.coinCount()];
+        coinFloat.forEach((coin, count) -> {
+            int id = catalog.coinId(coin);
+            if (id < 0) throw new IllegalArgumentException("Catalog has no " + coin);
+            counts[id] = count;
+        });
+        return counts;
+    }
+
+    private static int[][] changeAmounts(int[] prices, int largestCoin) {
+        int[][] amounts = new int[prices.length][];
+        for (int i = 0; i < prices.length; i++) {
+            int toCoin = roundUp(prices[i], largestCoin) - prices[i];
+            int toDollar = roundUp(prices[i], DOLLAR) - prices[i];
+            amounts[i] = Arrays.stream(new int[]{toCoin, toDollar}).filter(a -> a > 0).distinct().toArray();
+        }
+        return amounts;
+    }
+
+    private static int roundUp(int amount, int unit) {
+        return (amount + unit - 1) / unit * unit;
+    }
+
+    public int add(VendingMachine machine) {
+        if (machine.catalog() != catalog) {
+            throw new IllegalArgumentException("Machine uses a different catalog than this planner");
+        }
+        Tracker tracker = new Tracker(trackers.size(), machine, now());
+        tracker.refresh();
+        machine.addListener(tracker);
+        trackers.add(tracker);
+        return trackers.size() - 1;
+    }
+
+    public void refresh(int id) {
+        tracker(id).refresh();
+    }
+
+    public int size() {
+        return trackers.size();
+    }
+
+    public double hoursToSoldOut(int id, Product product) {
+        int productId = catalog.productId(product);
+        if (productId < 0) throw new IllegalArgumentException("Catalog has no " + product);
+        return hoursToSoldOut(id, productId);
+    }
+
+    public double hoursToSoldOut(int id, int product) {
+        return Math.max(0, tracker(id).projection.soldOutAt[product] - now());
+    }
+
+    public double hoursToCantMakeChange(int id, int price) {
+        int index = Arrays.binarySearch(prices, price);
+        if (index < 0) throw new IllegalArgumentException("No product costs " + price);
+        return Math.max(0, tracker(id).projection.cantMakeChangeAt[index] - now());
+    }
+
+    public RestockPlan plan(double withinHours) {
+        double now = now();
+        List<Projection> due = new ArrayList<>();
+        for (Tracker tracker : trackers) {
+            Projection projection = tracker.projection;
+            if (projection.deadline - now <= withinHours) due.add(projection);
+        }
+        due.sort((a, b) -> Double.compare(a.deadline, b.deadline));
+
+        RestockPlan plan = new RestockPlan(catalog, due.size());
+        for (int stop = 0; stop < due.size(); stop++) {
+            Projection projection = due.get(stop);
+            int[] products = new int[catalog.productCount()];
+            for (int i = 0; i < products.length; i++) products[i] = Math.max(0, parStock - projection.stock[i]);
+            int[] coins = new int[catalog.coinCount()];
+            for (int i = 0; i < coins.length; i++) coins[i] = Math.max(0, coinFloat[i] - projection.coins[i]);
+            plan.addStop(projection.machine, Math.max(0, projection.deadline - now), products, coins);
+        }
+        return plan;
+    }
+
+    private Tracker tracker(int id) {
+        if (id < 0 || id >= trackers.size()) {
+            throw new IndexOutOfBoundsException("No machine " + id + " in planner of " + trackers.size());
+        }
+        return trackers.get(id);
+    }
+
+    private double now() {
+        return clock.getAsLong() / MILLIS_PER_HOUR;
+    }
+
+    private static double decay(double elapsedHours) {
+        return Math.exp(-elapsedHours / RATE_WINDOW_HOURS);
+    }
+
+    private class Tracker implements MachineListener {
+        private final int id;
+        private final VendingMachine machine;
+        private final double start;
+        private final int[] stock = new int[catalog.productCount()];
+        private final int[] coins = new int[catalog.coinCount()];
+        private final int[] inserted = new int[catalog.coinCount()];
+        private final double[] sold = new double[catalog.productCount()];
+        private final double[] soldUpdated = new double[catalog.productCount()];
+        private final double[] received = new double[catalog.coinCount()];
+        private final double[] paidOut = new double[catalog.coinCount()];
+        private final int[] projected = new int[catalog.coinCount()];
+        private final boolean[] reachable = denominations.scratch(Math.max(DOLLAR, denominations.size() > 0 ? denominations.values[0] : 0));
+        private final double[] soldOutAt = new double[catalog.productCount()];
+        private final double[] cantMakeChangeAt = new double[prices.length];
+        private double coinsUpdated;
+        private volatile Projection projection;
+
+        Tracker(int id, VendingMachine machine, double start) {
+            this.id = id;
+            this.machine = machine;
+            this.start = start;
+            coinsUpdated = start;
+            Arrays.fill(soldUpdated, start);
+        }
+
+        void refresh() {
+            double now = now();
+            for (int product = 0; product < stock.length; product++) {
+                stock[product] = machine.productCount(product);
+                projectStock(product, now);
+            }
+            for (int coin = 0; coin < coins.length; coin++) coins[coin] = machine.coinCount(coin);
+            projectChange(now);
+            publish();
+        }
+
+        @Override
+        public void productStocked(int product, int count) {
+            stock[product] = count;
+            projectStock(product, now());
+            publish();
+        }
+
+        @Override
+        public void coinsStocked(int coin, int count) {
+            coins[coin] = count;
+            projectChange(now());
+            publish();
+        }
+
+        @Override
+        public void coinInserted(int coin) {
+            inserted[coin]++;
+        }
+
+        @Override
+        public void coinsReturned() {
+            Arrays.fill(inserted, 0);
+        }
+
+        @Override
+        public void productSold(int i) {
+            double now = now();
+            sold[i] = sold[i] * decay(now - soldUpdated[i]) + 1;
+            soldUpdated[i] = now;
+            stock[i]--;
+            projectStock(i, now);
+        }
+
+        @Override
+        public void changeDispensed(int coin, int count) {
+            inserted[coin] -= count;
+        }
+
+        @Override
+        public void selectionFinished(MachineState outcome) {
+            if (!outcome.equals(MachineState.PRODUCT_BOUGHT)) return;
+            double now = now();
+            double decay = decay(now - coinsUpdated);
+            for (int i = 0; i < coins.length; i++) {
+                coins[i] += inserted[i];
+                received[i] = received[i] * decay + Math.max(0, inserted[i]);
+                paidOut[i] = paidOut[i] * decay + Math.max(0, -inserted[i]);
+                inserted[i] = 0;
+            }
+            coinsUpdated = now;
+            projectChange(now);
+            publish();
+        }
+
+        private double window(double now) {
+            double observed = Math.max(1, now - start);
+            return RATE_WINDOW_HOURS * (1 - decay(observed));
+        }
+
+        private void projectStock(int i, double now) {
+            double rate = sold[i] * decay(now - soldUpdated[i]) / window(now);
+            if (stock[i] <= 0) soldOutAt[i] = now;
+            else soldOutAt[i] = rate > 0 ? now + stock[i] / rate : Double.POSITIVE_INFINITY;
+        }
+
+        private void projectChange(double now) {
+            double window = window(now);
+            for (int price = 0; price < prices.length; price++) {
+                double at = Double.POSITIVE_INFINITY;
+                for (int amount : changeAmounts[price]) at = Math.min(at, now + hoursUntilShort(amount, window));
+                cantMakeChangeAt[price] = at;
+            }
+        }
+
+        private double hoursUntilShort(int amount, double window) {
+            if (!canMakeChangeAfter(amount, 0, window)) return 0;
+            if (canMakeChangeAfter(amount, HORIZON_HOURS, window)) return Double.POSITIVE_INFINITY;
+            double low = 0;
+            double high = HORIZON_HOURS;
+            while (high - low > RESOLUTION_HOURS) {
+                double middle = (low + high) / 2;
+                if (canMakeChangeAfter(amount, middle, window)) low = middle;
+                else high = middle;
+            }
+            return high;
+        }
+
+        private boolean canMakeChangeAfter(int amount, double hours, double window) {
+            for (int i = 0; i < projected.length; i++) {
+                int coin = denominations.ids[i];
+                double net = (received[coin] - paidOut[coin]) / window;
+                projected[i] = net < 0 ? (int) Math.max(0, Math.ceil(coins[coin] + net * hours)) : coins[coin];
+            }
+            return denominations.canMake(amount, projected, reachable);
+        }
+
+        private void publish() {
+            projection = new Projection(id, stock.clone(), coins.clone(), soldOutAt.clone(), cantMakeChangeAt.clone());
+        }
+    }
+
+    private static final class Projection {
+        private final int machine;
+        private final int[] stock;
+        private final int[] coins;
+        private final double[] soldOutAt;
+        private final double[] cantMakeChangeAt;
+        private final double deadline;
+
+        Projection(int machine, int[] stock, int[] coins, double[] soldOutAt, double[] cantMakeChangeAt) {
+            this.machine = machine;
+            this.stock = stock;
+            this.coins = coins;
+            this.soldOutAt = soldOutAt;
+            this.cantMakeChangeAt = cantMakeChangeAt;
+            double deadline = Double.POSITIVE_INFINITY;
+            for (double at : soldOutAt) deadline = Math.min(deadline, at);
+            for (double at : cantMakeChangeAt) deadline = Math.min(deadline, at);
+            this.deadline = deadline;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.codecool.machine.vending_machine;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+public class SalesAnalytics implements MachineListener {
+    private static final int STATES = MachineState.values().length;
+    private static final int SALES = 0;
+    private static final long MILLIS_PER_HOUR = 3_600_000;
+
+    private final Catalog catalog;
+    private final int change;
+    private final int outcomes;
+    private final int slots;
+
+    private final LongSupplier clock;
+    private final long bucketMillis;
+    private final int buckets;
+    private final AtomicLongArray counts;
+    private final AtomicLongArray stamps;
+    private final long[] pending;
+    private long currentTick = Long.MIN_VALUE;
+    private int currentBase;
+
+    private SalesAnalytics(Catalog catalog, LongSupplier clock, long bucketMillis, int buckets) {
+        if (bucketMillis <= 0 || buckets <= 0) {
+            throw new IllegalArgumentException("Window needs positive bucket length and count");
+        }
+        this.catalog = catalog;
+        change = SALES + catalog.productCount();
+        outcomes = change + catalog.coinCount();
+        slots = outcomes + STATES;
+        pending = new long[slots];
+        this.clock = clock;
+        this.bucketMillis = bucketMillis;
+        this.buckets = buckets;
+        counts = new AtomicLongArray(buckets * slots);
+        stamps = new AtomicLongArray(buckets);
+        for (int bucket = 0; bucket < buckets; bucket++) stamps.set(bucket, Long.MIN_VALUE);
+    }
+
+    public static SalesAnalytics attach(VendingMachine machine) {
+        return attach(machine, System::currentTimeMillis, 60_000, 60);
+    }
+
+    static SalesAnalytics attach(VendingMachine machine, LongSupplier clock, long bucketMillis, int buckets) {
+        SalesAnalytics analytics = new SalesAnalytics(machine.catalog(), clock, bucketMillis, buckets);
+        machine.addListener(analytics);
+        return analytics;
+    }
+
+    @Override
+    public void productSold(int product) {
+        pending[SALES + product]++;
+    }
+
+    @Override
+    public void changeDispensed(int coin, int count) {
+        pending[change + coin] += count;
+    }
+
+    @Override
+    public void selectionFinished(MachineState outcome) {
+        pending[outcomes + outcome.ordinal()]++;
+        long tick = clock.getAsLong() / bucketMillis;
+        if (tick > currentTick) roll(tick);
+        for (int slot = 0; slot < slots; slot++) {
+            if (pending[slot] != 0) {
+                int index = currentBase + slot;
+                counts.lazySet(index, counts.get(index) + pending[slot]);
+                pending[slot] = 0;
+            }
+        }
+    }
+
+    private void roll(long tick) {
+        int bucket = (int) Math.floorMod(tick, (long) buckets);
+        int base = bucket * slots;
+        stamps.set(bucket, Long.MIN_VALUE);
+        for (int slot = 0; slot < slots; slot++) counts.lazySet(base + slot, 0);
+        stamps.set(bucket, tick);
+        currentTick = tick;
+        currentBase = base;
+    }
+
+    public long sales(Product product) {
+        int id = catalog.productId(product);
+        return id >= 0 ? sales(id) : 0;
+    }
+
+    public long sales(int product) {
+        return windowSum(SALES + product);
+    }
+
+    public double salesPerHour(Product product) {
+        return sales(product) * (double) MILLIS_PER_HOUR / windowMillis();
+    }
+
+    public double salesPerHour(int product) {
+        return sales(product) * (double) MILLIS_PER_HOUR / windowMillis();
+    }
+
+    public long changeDispensed(Coin coin) {
+        int id = catalog.coinId(coin);
+        return id >= 0 ? changeDispensed(id) : 0;
+    }
+
+    public long changeDispensed(int coin) {
+        return windowSum(change + coin);
+    }
+
+    public long outcomes(MachineState outcome) {
+        return windowSum(outcomes + outcome.ordinal());
+    }
+
+    public double frequency(MachineState outcome) {
+        long selections = 0;
+        long matching = 0;
+        for (int state = 0; state < STATES; state++) {
+            long count = windowSum(outcomes + state);
+            selections += count;
+            if (state == outcome.ordinal()) matching = count;
+        }
+        return selections == 0 ? 0 : (double) matching / selections;
+    }
+
+    public long windowMillis() {
+        return bucketMillis * buckets;
+    }
+
+    private long windowSum(int slot) {
+        long now = clock.getAsLong() / bucketMillis;
+        long sum = 0;
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            long stamp = stamps.get(bucket);
+            if (stamp > now || stamp <= now - buckets) continue;
+            long count = counts.get(bucket * slots + slot);
+            if (stamps.get(bucket) == stamp) sum += count;
+        }
+        return sum;
+    }
+}
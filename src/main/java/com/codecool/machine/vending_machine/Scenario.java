@@ -0,0 +1,108 @@
+package com.codecool.machine.vending_machine;
+
+public final class Scenario {
+    private static final int HOURS_PER_WEEK = 7 * 24;
+
+    final long seed;
+    final int hours;
+    final double customersPerHour;
+    final Catalog catalog;
+    final int[] coinFloat;
+    final int stock;
+    final int restockEveryHours;
+    final double exactPaymentShare;
+    final double shortPaymentShare;
+    final ChangePolicy changePolicy;
+
+    private Scenario(long seed, int hours, double customersPerHour, Catalog catalog, int[] coinFloat,
+                     int stock, int restockEveryHours, double exactPaymentShare, double shortPaymentShare,
+                     ChangePolicy changePolicy) {
+        if (hours < 0) throw new IllegalArgumentException("Negative duration: " + hours);
+        if (customersPerHour <= 0) throw new IllegalArgumentException("Arrival rate must be positive: " + customersPerHour);
+        for (int count : coinFloat) {
+            if (count < 0) throw new IllegalArgumentException("Negative coin float");
+        }
+        if (stock < 0) throw new IllegalArgumentException("Negative stock: " + stock);
+        if (exactPaymentShare < 0 || shortPaymentShare < 0 || exactPaymentShare + shortPaymentShare > 1) {
+            throw new IllegalArgumentException("Payment shares must be non-negative and add up to at most 1");
+        }
+        this.seed = seed;
+        this.hours = hours;
+        this.customersPerHour = customersPerHour;
+        this.catalog = catalog;
+        this.coinFloat = coinFloat;
+        this.stock = stock;
+        this.restockEveryHours = restockEveryHours;
+        this.exactPaymentShare = exactPaymentShare;
+        this.shortPaymentShare = shortPaymentShare;
+        this.changePolicy = changePolicy;
+    }
+
+    public static Scenario of(long seed) {
+        return of(seed, Catalog.standard()).coinFloat(1, 0, 1);
+    }
+
+    public static Scenario of(long seed, Catalog catalog) {
+        return new Scenario(seed, HOURS_PER_WEEK, 4, catalog, new int[catalog.coinCount()], 10, HOURS_PER_WEEK, 0.3, 0.05,
+                ChangePolicy.firstFound());
+    }
+
+    public Scenario weeks(int weeks) {
+        return hours(weeks * HOURS_PER_WEEK);
+    }
+
+    public Scenario hours(int hours) {
+        return new Scenario(seed, hours, customersPerHour, catalog, coinFloat, stock,
+                restockEveryHours, exactPaymentShare, shortPaymentShare, changePolicy);
+    }
+
+    public Scenario customersPerHour(double customersPerHour) {
+        return new Scenario(seed, hours, customersPerHour, catalog, coinFloat, stock,
+                restockEveryHours, exactPaymentShare, shortPaymentShare, changePolicy);
+    }
+
+    public Scenario coinFloat(int quarters, int dimes, int nickels) {
+        return coinFloat("QUARTER", quarters).coinFloat("DIME", dimes).coinFloat("NICKEL", nickels);
+    }
+
+    public Scenario coinFloat(String coin, int count) {
+        int id = catalog.coinId(coin);
+        if (id < 0) throw new IllegalArgumentException("Catalog has no coin " + coin);
+        int[] coinFloat = this.coinFloat.clone();
+        coinFloat[id] = count;
+        return new Scenario(seed, hours, customersPerHour, catalog, coinFloat, stock,
+                restockEveryHours, exactPaymentShare, shortPaymentShare, changePolicy);
+    }
+
+    public Scenario restock(int stock, int everyHours) {
+        return new Scenario(seed, hours, customersPerHour, catalog, coinFloat, stock,
+                everyHours, exactPaymentShare, shortPaymentShare, changePolicy);
+    }
+
+    public Scenario payments(double exactShare, double shortShare) {
+        return new Scenario(seed, hours, customersPerHour, catalog, coinFloat, stock,
+                restockEveryHours, exactShare, shortShare, changePolicy);
+    }
+
+    public Scenario changePolicy(ChangePolicy changePolicy) {
+        return new Scenario(seed, hours, customersPerHour, catalog, coinFloat, stock,
+                restockEveryHours, exactPaymentShare, shortPaymentShare, changePolicy);
+    }
+
+    @Override
+    public String toString() {
+        return "Scenario{seed=" + seed + ", hours=" + hours + ", customersPerHour=" + customersPerHour
+                + ", float=" + floatText() + ", stock=" + stock
+                + ", restockEveryHours=" + restockEveryHours + ", exact=" + exactPaymentShare
+                + ", short=" + shortPaymentShare + ", change=" + changePolicy + "}";
+    }
+
+    private String floatText() {
+        StringBuilder text = new StringBuilder();
+        for (int coin : catalog.denominations().ids) {
+            if (text.length() > 0) text.append('/');
+            text.append(coinFloat[coin]);
+        }
+        return text.toString();
+    }
+}
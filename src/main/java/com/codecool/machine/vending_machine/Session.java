@@ -0,0 +1,159 @@
+package com.codecool.machine.vending_machine;
+
+import java.util.Map;
+
+public class Session {
+    private final ConcurrentVendingMachine machine;
+    private final Catalog catalog;
+    private final int rejected;
+    private final Inventory productTray;
+    private final Inventory insertedCoins;
+    private final Inventory changeTray;
+    private final Inventory availableCoins;
+    private final Inventory change;
+    private final Map<Product, Integer> productTrayView;
+    private final Map<Coin, Integer> changeTrayView;
+    private final CoinFactory coinFactory;
+    private final ChangeStrategy changeStrategy;
+    private int insertedValue = 0;
+    private MachineState state = MachineState.INSERT_COIN;
+
+    Session(ConcurrentVendingMachine machine) {
+        this.machine = machine;
+        catalog = machine.catalog();
+        rejected = catalog.coinCount();
+        coinFactory = catalog.coinFactory();
+        changeStrategy = new KnapsackChangeStrategy(catalog);
+        productTray = new Inventory(catalog.productCount());
+        insertedCoins = new Inventory(rejected + 1);
+        changeTray = new Inventory(rejected + 1);
+        availableCoins = new Inventory(rejected + 1);
+        change = new Inventory(rejected + 1);
+        int[] coinIds = new int[Coin.values().length];
+        for (Coin coin : Coin.values()) coinIds[coin.ordinal()] = coin.equals(Coin.INVALID) ? rejected : catalog.coinId(coin);
+        int[] productIds = new int[Product.values().length];
+        for (Product product : Product.values()) productIds[product.ordinal()] = catalog.productId(product);
+        productTrayView = productTray.view(Product.class, productIds);
+        changeTrayView = changeTray.view(Coin.class, coinIds);
+    }
+
+    public void insertCoin(int weight, int size) {
+        int coin = coinFactory.coinId(weight, size);
+        if (coin >= 0) {
+            insertedCoins.add(coin, 1);
+            insertedValue += catalog.coinValue(coin);
+            state = MachineState.COIN_INSERTED;
+        } else {
+            changeTray.add(rejected, 1);
+        }
+    }
+
+    public void selectProduct(Product product) {
+        selectProduct(machine.productId(product));
+    }
+
+    public void selectProduct(int product) {
+        int cost = catalog.productCost(product);
+        if (cost > insertedValue) {
+            state = MachineState.INSUFFICIENT_FUNDS;
+            return;
+        }
+        if (!machine.reserveProduct(product)) {
+            state = MachineState.SOLD_OUT;
+            return;
+        }
+        int rest = insertedValue - cost;
+        do {
+            machine.snapshotCoins(availableCoins);
+            if (!changeStrategy.computeChange(rest, availableCoins, change)) {
+                machine.releaseProduct(product);
+                state = MachineState.CANT_MAKE_CHANGE;
+                return;
+            }
+        } while (!machine.reserveCoins(change));
+
+        machine.depositCoins(insertedCoins);
+        productTray.add(product, 1);
+        changeTray.addAll(change);
+        clearInsertedCoins();
+        state = MachineState.PRODUCT_BOUGHT;
+    }
+
+    public void selectProducts(Cart cart) {
+        if (cart.isEmpty()) return;
+        if (cart.catalog() != catalog) throw new IllegalArgumentException("Cart was filled from another catalog");
+        if (cart.total() > insertedValue) {
+            state = MachineState.INSUFFICIENT_FUNDS;
+            return;
+        }
+        if (!machine.reserveProducts(cart.items)) {
+            state = MachineState.SOLD_OUT;
+            return;
+        }
+        int rest = insertedValue - cart.total();
+        do {
+            machine.snapshotCoins(availableCoins);
+            if (!changeStrategy.computeChange(rest, availableCoins, change)) {
+                machine.releaseProducts(cart.items);
+                state = MachineState.CANT_MAKE_CHANGE;
+                return;
+            }
+        } while (!machine.reserveCoins(change));
+
+        machine.depositCoins(insertedCoins);
+        productTray.addAll(cart.items);
+        changeTray.addAll(change);
+        clearInsertedCoins();
+        state = MachineState.PRODUCT_BOUGHT;
+    }
+
+    private void clearInsertedCoins() {
+        insertedCoins.clear();
+        insertedValue = 0;
+    }
+
+    public void resetState() {
+        if (!state.equals(MachineState.INSERT_COIN)) {
+            state = insertedValue == 0
+                    ? MachineState.INSERT_COIN
+                    : MachineState.COIN_INSERTED;
+        }
+    }
+
+    public void returnCoins() {
+        changeTray.addAll(insertedCoins);
+        clearInsertedCoins();
+    }
+
+    public void takeChange() {
+        changeTray.clear();
+    }
+
+    public void takeProduct() {
+        productTray.clear();
+    }
+
+    int getInsertedValue() {
+        return insertedValue;
+    }
+
+    MachineState getState() {
+        return state;
+    }
+
+    Map<Coin, Integer> getChangeTray() {
+        return changeTrayView;
+    }
+
+    Map<Product, Integer> getProductTray() {
+        return productTrayView;
+    }
+
+    int productTrayCount(int product) {
+        return productTray.get(product);
+    }
+
+    int changeTrayCount(int coin) {
+        return changeTray.get(coin);
+    }
+}
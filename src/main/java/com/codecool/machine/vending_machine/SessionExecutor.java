@@ -0,0 +1,38 @@
+package com.codecool.machine.vending_machine;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SessionExecutor implements AutoCloseable {
+    private final ConcurrentVendingMachine machine;
+    private final ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger active = new AtomicInteger();
+
+    public SessionExecutor(ConcurrentVendingMachine machine) {
+        this.machine = machine;
+    }
+
+    public <T> Future<T> submit(Customer<T> customer) {
+        return threads.submit(() -> {
+            active.incrementAndGet();
+            Session session = machine.openSession();
+            try {
+                return customer.visit(session);
+            } finally {
+                session.returnCoins();
+                active.decrementAndGet();
+            }
+        });
+    }
+
+    public int activeSessions() {
+        return active.get();
+    }
+
+    @Override
+    public void close() {
+        threads.close();
+    }
+}
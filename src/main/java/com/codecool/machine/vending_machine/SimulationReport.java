@@ -0,0 +1,55 @@
+package com.codecool.machine.vending_machine;
+
+public final class SimulationReport {
+    final Scenario scenario;
+    long customers;
+    long sales;
+    long revenue;
+    long soldOut;
+    long cantMakeChange;
+    long insufficientFunds;
+    long restocks;
+
+    SimulationReport(Scenario scenario) {
+        this.scenario = scenario;
+    }
+
+    public Scenario scenario() {
+        return scenario;
+    }
+
+    public long customers() {
+        return customers;
+    }
+
+    public long sales() {
+        return sales;
+    }
+
+    public long revenue() {
+        return revenue;
+    }
+
+    public long lostToSoldOut() {
+        return soldOut;
+    }
+
+    public long lostToCantMakeChange() {
+        return cantMakeChange;
+    }
+
+    public long lostToInsufficientFunds() {
+        return insufficientFunds;
+    }
+
+    public long restocks() {
+        return restocks;
+    }
+
+    @Override
+    public String toString() {
+        return scenario + ": customers=" + customers + ", sales=" + sales + ", revenue=" + revenue
+                + ", soldOut=" + soldOut + ", cantMakeChange=" + cantMakeChange
+                + ", insufficientFunds=" + insufficientFunds + ", restocks=" + restocks;
+    }
+}
@@ -0,0 +1,92 @@
+package com.codecool.machine.vending_machine;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+public final class Simulator {
+    private static final int DOLLAR = 100;
+
+    private Simulator() {
+    }
+
+    public static List<SimulationReport> runAll(List<Scenario> scenarios) {
+        return scenarios.parallelStream().map(Simulator::run).collect(Collectors.toList());
+    }
+
+    public static SimulationReport run(Scenario scenario) {
+        SimulationReport report = new SimulationReport(scenario);
+        SplittableRandom random = new SplittableRandom(scenario.seed);
+        VendingMachine machine = new VendingMachine(scenario.catalog, scenario.changePolicy);
+        restock(machine, scenario);
+
+        double nextRestock = scenario.restockEveryHours > 0 ? scenario.restockEveryHours : Double.POSITIVE_INFINITY;
+        double now = nextArrival(random, scenario, 0);
+        while (now < scenario.hours) {
+            while (nextRestock <= now) {
+                restock(machine, scenario);
+                report.restocks++;
+                nextRestock += scenario.restockEveryHours;
+            }
+            serve(machine, random, scenario, report);
+            now = nextArrival(random, scenario, now);
+        }
+        return report;
+    }
+
+    private static double nextArrival(SplittableRandom random, Scenario scenario, double now) {
+        return now - Math.log(1 - random.nextDouble()) / scenario.customersPerHour;
+    }
+
+    private static void restock(VendingMachine machine, Scenario scenario) {
+        for (int product = 0; product < scenario.catalog.productCount(); product++) {
+            machine.stockProduct(product, scenario.stock);
+        }
+        for (int coin = 0; coin < scenario.catalog.coinCount(); coin++) machine.stockCoins(coin, scenario.coinFloat[coin]);
+    }
+
+    private static void serve(VendingMachine machine, SplittableRandom random, Scenario scenario,
+                              SimulationReport report) {
+        report.customers++;
+        Catalog catalog = scenario.catalog;
+        Denominations denominations = catalog.denominations();
+        int product = random.nextInt(catalog.productCount());
+        int cost = catalog.productCost(product);
+        double pattern = random.nextDouble();
+        if (pattern < scenario.shortPaymentShare) {
+            pay(machine, cost - denominations.values[denominations.size() - 1], 0);
+        } else if (pattern < scenario.shortPaymentShare + scenario.exactPaymentShare) {
+            pay(machine, cost, random.nextInt(denominations.size()));
+        } else {
+            int rounding = random.nextBoolean() ? denominations.values[0] : DOLLAR;
+            pay(machine, (cost + rounding - 1) / rounding * rounding, 0);
+        }
+
+        machine.selectProduct(product);
+        MachineState state = machine.getState();
+        if (state.equals(MachineState.PRODUCT_BOUGHT)) {
+            report.sales++;
+            report.revenue += cost;
+            machine.takeProduct();
+        } else {
+            if (state.equals(MachineState.SOLD_OUT)) report.soldOut++;
+            else if (state.equals(MachineState.CANT_MAKE_CHANGE)) report.cantMakeChange++;
+            else if (state.equals(MachineState.INSUFFICIENT_FUNDS)) report.insufficientFunds++;
+            machine.returnCoins();
+        }
+        machine.takeChange();
+        machine.resetState();
+    }
+
+    private static void pay(VendingMachine machine, int amount, int largest) {
+        Catalog catalog = machine.catalog();
+        Denominations denominations = catalog.denominations();
+        for (int i = largest; i < denominations.size(); i++) {
+            int coin = denominations.ids[i];
+            for (int count = amount / denominations.values[i]; count > 0; count--) {
+                machine.insertCoin(catalog.coinWeight(coin), catalog.coinSize(coin));
+            }
+            amount %= denominations.values[i];
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.codecool.machine.vending_machine;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class StripedMachineMetrics {
+    private static final int STATES = MachineState.values().length;
+
+    private final Catalog catalog;
+    private final LongAdder[] states = adders(STATES);
+    private final LongAdder[] coins;
+    private final LongAdder[] sales;
+    private final LatencyHistogram insertLatency = new LatencyHistogram();
+    private final LatencyHistogram selectLatency = new LatencyHistogram();
+    private final LatencyHistogram changeLatency = new LatencyHistogram();
+    private final int sampleMask;
+
+    public StripedMachineMetrics() {
+        this(1024);
+    }
+
+    public StripedMachineMetrics(int sampleEvery) {
+        this(Catalog.standard(), sampleEvery);
+    }
+
+    public StripedMachineMetrics(Catalog catalog, int sampleEvery) {
+        if (Integer.bitCount(sampleEvery) != 1) {
+            throw new IllegalArgumentException("Sample rate must be a power of two, got " + sampleEvery);
+        }
+        this.catalog = catalog;
+        coins = adders(catalog.coinCount() + 1);
+        sales = adders(catalog.productCount());
+        sampleMask = sampleEvery - 1;
+    }
+
+    private static LongAdder[] adders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    public void attach(VendingMachine machine) {
+        if (machine.catalog() != catalog) {
+            throw new IllegalArgumentException("Machine uses a different catalog than these metrics");
+        }
+        machine.setMetrics(new Recorder());
+    }
+
+    public MetricsSnapshot snapshot() {
+        return new MetricsSnapshot(catalog, sum(states), sum(coins), sum(sales),
+                insertLatency.snapshot(), selectLatency.snapshot(), changeLatency.snapshot());
+    }
+
+    private static long[] sum(LongAdder[] adders) {
+        long[] sums = new long[adders.length];
+        for (int i = 0; i < adders.length; i++) {
+            sums[i] = adders[i].sum();
+        }
+        return sums;
+    }
+
+    private static void publish(long[] pending, int base, LongAdder[] adders) {
+        for (int i = 0; i < adders.length; i++) {
+            if (pending[base + i] != 0) {
+                adders[i].add(pending[base + i]);
+                pending[base + i] = 0;
+            }
+        }
+    }
+
+    private class Recorder implements MachineMetrics {
+        private final int coinBase = STATES;
+        private final int saleBase = STATES + coins.length;
+        private final long[] pending = new long[saleBase + sales.length];
+        private final int mask = sampleMask;
+        private int ticks = 0;
+
+        @Override
+        public long startTimer() {
+            return (++ticks & mask) == 0 ? System.nanoTime() : 0;
+        }
+
+        @Override
+        public void stateEntered(MachineState state) {
+            pending[state.ordinal()]++;
+        }
+
+        @Override
+        public void coinInserted(int coin, long start) {
+            pending[coinBase + coin]++;
+            if (start != 0) {
+                insertLatency.record(System.nanoTime() - start);
+                flush();
+            }
+        }
+
+        @Override
+        public void productSelected(int product, MachineState state, long start) {
+            if (state.equals(MachineState.PRODUCT_BOUGHT)) pending[saleBase + product]++;
+            if (start != 0) {
+                selectLatency.record(System.nanoTime() - start);
+                flush();
+            }
+        }
+
+        @Override
+        public void cartSelected(Inventory items, MachineState state, long start) {
+            if (state.equals(MachineState.PRODUCT_BOUGHT)) {
+                for (int i = 0; i < items.size(); i++) pending[saleBase + i] += items.get(i);
+            }
+            if (start != 0) {
+                selectLatency.record(System.nanoTime() - start);
+                flush();
+            }
+        }
+
+        @Override
+        public void changeComputed(long start) {
+            if (start != 0) changeLatency.record(System.nanoTime() - start);
+        }
+
+        @Override
+        public void flush() {
+            publish(pending, 0, states);
+            publish(pending, coinBase, coins);
+            publish(pending, saleBase, sales);
+        }
+    }
+}
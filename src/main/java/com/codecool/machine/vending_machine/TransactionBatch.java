@@ -0,0 +1,110 @@
+package com.codecool.machine.vending_machine;
+
+public class TransactionBatch {
+    static final int INSERT = 1;
+    static final int SELECT = 2;
+    static final int RETURN = 3;
+    static final int TAKE_PRODUCT = 4;
+    static final int TAKE_CHANGE = 5;
+    static final int MAX_SIZE = 0xFFFFFF;
+
+    private static final MachineState[] STATES = MachineState.values();
+
+    private TransactionBatch() {
+    }
+
+    public static long insert(int weight, int size) {
+        if (size < 0 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Coin size must be between 0 and " + MAX_SIZE + ", got " + size);
+        }
+        return (long) INSERT << 56 | (weight & 0xFFFFFFFFL) << 24 | (size & 0xFFFFFFL);
+    }
+
+    public static long select(Product product) {
+        int id = Catalog.standard().productId(product);
+        if (id < 0) throw new IllegalArgumentException("Catalog has no product " + product);
+        return select(id);
+    }
+
+    public static long select(int product) {
+        if (product < 0 || product > MAX_SIZE) {
+            throw new IllegalArgumentException("Product id must be between 0 and " + MAX_SIZE + ", got " + product);
+        }
+        return (long) SELECT << 56 | product;
+    }
+
+    public static long returnCoins() {
+        return (long) RETURN << 56;
+    }
+
+    public static long takeProduct() {
+        return (long) TAKE_PRODUCT << 56;
+    }
+
+    public static long takeChange() {
+        return (long) TAKE_CHANGE << 56;
+    }
+
+    public static Result apply(VendingMachine machine, long[] operations) {
+        Result result = new Result(operations.length);
+        apply(machine, operations, 0, operations.length, result);
+        return result;
+    }
+
+    public static void apply(VendingMachine machine, long[] operations, int from, int to, Result result) {
+        if (result.states.length < to - from) {
+            throw new IllegalArgumentException("Result holds " + result.states.length + " operations, batch has " + (to - from));
+        }
+        byte[] states = result.states;
+        int[] change = result.change;
+        for (int i = from; i < to; i++) {
+            long operation = operations[i];
+            int given = 0;
+            machine.resetState();
+            switch ((int) (operation >>> 56)) {
+                case INSERT -> machine.insertCoin((int) (operation >>> 24), (int) (operation & 0xFFFFFF));
+                case SELECT -> {
+                    int product = (int) (operation & 0xFFFFFF);
+                    int insertedValue = machine.getInsertedValue();
+                    machine.selectProduct(product);
+                    if (machine.getState().equals(MachineState.PRODUCT_BOUGHT)) {
+                        given = insertedValue - machine.catalog().productCost(product);
+                    }
+                }
+                case RETURN -> {
+                    given = machine.getInsertedValue();
+                    machine.returnCoins();
+                }
+                case TAKE_PRODUCT -> machine.takeProduct();
+                case TAKE_CHANGE -> machine.takeChange();
+                default -> throw new IllegalArgumentException("Unknown operation " + Long.toHexString(operation));
+            }
+            states[i - from] = (byte) machine.getState().ordinal();
+            change[i - from] = given;
+        }
+        result.size = to - from;
+    }
+
+    public static class Result {
+        private final byte[] states;
+        private final int[] change;
+        private int size;
+
+        public Result(int capacity) {
+            states = new byte[capacity];
+            change = new int[capacity];
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public MachineState state(int index) {
+            return STATES[states[index]];
+        }
+
+        public int change(int index) {
+            return change[index];
+        }
+    }
+}
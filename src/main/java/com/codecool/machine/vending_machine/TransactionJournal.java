@@ -0,0 +1,202 @@
+package com.codecool.machine.vending_machine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class TransactionJournal implements MachineListener, Closeable {
+    static final int RECORD_SIZE = 8;
+    static final int SEGMENT_SIZE = 1 << 24;
+
+    static final byte COIN_INSERTED = 1;
+    static final byte COIN_REJECTED = 2;
+    static final byte PRODUCT_SOLD = 3;
+    static final byte CHANGE_DISPENSED = 4;
+    static final byte COINS_RETURNED = 5;
+    static final byte CHANGE_TAKEN = 6;
+    static final byte PRODUCT_TAKEN = 7;
+    static final byte PRODUCT_STOCKED = 8;
+    static final byte COINS_STOCKED = 9;
+
+    private final VendingMachine machine;
+    private final FileChannel channel;
+    private final Path snapshotFile;
+    private final int commitEvery;
+    private final int snapshotEvery;
+    private final boolean recovered;
+    private MappedByteBuffer segment;
+    private long segmentStart;
+    private long offset;
+    private int uncommitted;
+    private int sinceSnapshot;
+    private boolean snapshotDue;
+
+    private TransactionJournal(VendingMachine machine, Path directory, int commitEvery, int snapshotEvery) throws IOException {
+        this.machine = machine;
+        this.commitEvery = commitEvery;
+        this.snapshotEvery = snapshotEvery;
+        Files.createDirectories(directory);
+        snapshotFile = directory.resolve("machine.snapshot");
+        channel = FileChannel.open(directory.resolve("machine.journal"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        boolean hasSnapshot = Files.exists(snapshotFile);
+        offset = hasSnapshot ? MachineSnapshot.load(snapshotFile, machine) : 0;
+        map(offset - offset % SEGMENT_SIZE);
+        recovered = replay() || hasSnapshot;
+    }
+
+    public static TransactionJournal open(Path directory, VendingMachine machine) throws IOException {
+        return open(directory, machine, 1024, 100_000);
+    }
+
+    static TransactionJournal open(Path directory, VendingMachine machine, int commitEvery, int snapshotEvery) throws IOException {
+        TransactionJournal journal = new TransactionJournal(machine, directory, commitEvery, snapshotEvery);
+        machine.addListener(journal);
+        return journal;
+    }
+
+    public boolean isRecovered() {
+        return recovered;
+    }
+
+    private boolean replay() throws IOException {
+        long start = offset;
+        while (true) {
+            if (offset == segmentStart + SEGMENT_SIZE) map(offset);
+            int position = (int) (offset - segmentStart);
+            byte type = segment.get(position);
+            if (type == 0) break;
+            int id = segment.getShort(position + 2) & 0xffff;
+            int count = segment.getInt(position + 4);
+            switch (type) {
+                case COIN_INSERTED -> machine.addInsertedCoin(id);
+                case COIN_REJECTED -> machine.rejectCoin();
+                case PRODUCT_SOLD -> machine.completeSale(id);
+                case CHANGE_DISPENSED -> machine.dispenseChange(id, count);
+                case COINS_RETURNED -> machine.refundCoins();
+                case CHANGE_TAKEN -> machine.emptyChangeTray();
+                case PRODUCT_TAKEN -> machine.emptyProductTray();
+                case PRODUCT_STOCKED -> machine.setProductStock(id, count);
+                case COINS_STOCKED -> machine.setCoinStock(id, count);
+                default -> throw new IOException("Corrupt journal record " + type + " at " + offset);
+            }
+            offset += RECORD_SIZE;
+        }
+        return offset > start;
+    }
+
+    private void map(long start) throws IOException {
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, start, SEGMENT_SIZE);
+        segmentStart = start;
+    }
+
+    private void append(byte type, int id, int count) {
+        try {
+            if (offset == segmentStart + SEGMENT_SIZE) {
+                segment.force();
+                map(offset);
+            }
+            int position = (int) (offset - segmentStart);
+            segment.putInt(position + 4, count);
+            segment.putShort(position + 2, (short) id);
+            segment.put(position, type);
+            offset += RECORD_SIZE;
+
+            if (++uncommitted >= commitEvery) flush();
+            if (++sinceSnapshot >= snapshotEvery) snapshotDue = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void operationFinished() {
+        if (!snapshotDue) return;
+        try {
+            snapshot();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void flush() {
+        segment.force();
+        uncommitted = 0;
+    }
+
+    public void snapshot() throws IOException {
+        flush();
+        MachineSnapshot.save(snapshotFile, machine, offset);
+        sinceSnapshot = 0;
+        snapshotDue = false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        machine.removeListener(this);
+        flush();
+        channel.close();
+    }
+
+    @Override
+    public void coinInserted(int coin) {
+        append(COIN_INSERTED, coin, 0);
+        operationFinished();
+    }
+
+    @Override
+    public void coinRejected() {
+        append(COIN_REJECTED, 0, 0);
+        operationFinished();
+    }
+
+    @Override
+    public void productSold(int product) {
+        append(PRODUCT_SOLD, product, 0);
+    }
+
+    @Override
+    public void changeDispensed(int coin, int count) {
+        append(CHANGE_DISPENSED, coin, count);
+    }
+
+    @Override
+    public void selectionFinished(MachineState outcome) {
+        operationFinished();
+    }
+
+    @Override
+    public void coinsReturned() {
+        append(COINS_RETURNED, 0, 0);
+        operationFinished();
+    }
+
+    @Override
+    public void changeTaken() {
+        append(CHANGE_TAKEN, 0, 0);
+        operationFinished();
+    }
+
+    @Override
+    public void productTaken() {
+        append(PRODUCT_TAKEN, 0, 0);
+        operationFinished();
+    }
+
+    @Override
+    public void productStocked(int product, int count) {
+        append(PRODUCT_STOCKED, product, count);
+        operationFinished();
+    }
+
+    @Override
+    public void coinsStocked(int coin, int count) {
+        append(COINS_STOCKED, coin, count);
+        operationFinished();
+    }
+}
@@ -1,125 +1,209 @@
 package com.codecool.machine.vending_machine;
 
-import java.util.HashMap;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Map;
-import java.util.Optional;
 
 public class VendingMachine {
-    private final Map<Product, Integer> products;
-    private final Map<Product, Integer> productTray;
-    private final Map<Coin, Integer> machineCoins;
-    private final Map<Coin, Integer> insertedCoins;
-    private final Map<Coin, Integer> changeTray;
-    private final CoinFactory coinFactory = new CoinFactory();
+    private static final MachineState[] STATES = MachineState.values();
+
+    private final Catalog catalog;
+    private final int rejected;
+    private final int[] coinIds;
+    private final int[] productIds;
+    private final Inventory products;
+    private final Inventory productTray;
+    private final Inventory machineCoins;
+    private final Inventory insertedCoins;
+    private final Inventory changeTray;
+    private final Inventory change;
+    private Map<Product, Integer> productsView;
+    private final Map<Product, Integer> productTrayView;
+    private Map<Coin, Integer> machineCoinsView;
+    private final Map<Coin, Integer> insertedCoinsView;
+    private final Map<Coin, Integer> changeTrayView;
+    private final CoinFactory coinFactory;
+    private final ChangeStrategy changeStrategy;
+    private final ChangeAvailability changeAvailability;
+    private MachineListener[] listeners = new MachineListener[0];
+    private MachineMetrics metrics = MachineMetrics.DISABLED;
     private int insertedValue = 0;
     private MachineState state = MachineState.INSERT_COIN;
 
     public VendingMachine() {
-        products = new HashMap<>();
-        productTray = new HashMap<>();
-        machineCoins = new HashMap<>();
-        insertedCoins = new HashMap<>();
-        changeTray = new HashMap<>();
+        this(Catalog.standard());
+    }
+
+    public VendingMachine(ChangePolicy changePolicy) {
+        this(Catalog.standard(), changePolicy);
+    }
+
+    public VendingMachine(Catalog catalog) {
+        this(catalog, new KnapsackChangeStrategy(catalog));
+    }
+
+    public VendingMachine(Catalog catalog, ChangePolicy changePolicy) {
+        this(catalog, changePolicy.newStrategy(catalog));
+    }
+
+    VendingMachine(ChangeStrategy changeStrategy) {
+        this(Catalog.standard(), changeStrategy);
+    }
+
+    VendingMachine(Catalog catalog, ChangeStrategy changeStrategy) {
+        this.catalog = catalog;
+        this.changeStrategy = changeStrategy;
+        coinFactory = catalog.coinFactory();
+        changeAvailability = new ChangeAvailability(catalog);
+        rejected = catalog.coinCount();
+        coinIds = new int[Coin.values().length];
+        for (Coin coin : Coin.values()) coinIds[coin.ordinal()] = coin.equals(Coin.INVALID) ? rejected : catalog.coinId(coin);
+        productIds = new int[Product.values().length];
+        for (Product product : Product.values()) productIds[product.ordinal()] = catalog.productId(product);
+        products = new Inventory(catalog.productCount());
+        productTray = new Inventory(catalog.productCount());
+        machineCoins = new Inventory(rejected + 1);
+        insertedCoins = new Inventory(rejected + 1);
+        changeTray = new Inventory(rejected + 1);
+        change = new Inventory(rejected + 1);
+        productTrayView = productTray.view(Product.class, productIds);
+        insertedCoinsView = insertedCoins.view(Coin.class, coinIds);
+        changeTrayView = changeTray.view(Coin.class, coinIds);
+    }
+
+    static int recordSize(Catalog catalog) {
+        return 2 * 4 + 2 * 4 * catalog.productCount() + 3 * 4 * (catalog.coinCount() + 1);
+    }
+
+    public Catalog catalog() {
+        return catalog;
     }
 
     public void insertCoin(int weight, int size) {
-        Coin coin = coinFactory.getCoin(weight, size);
-        if (!coin.equals(Coin.INVALID)) addInsertedCoin(coin);
-        else {
-            changeTray.merge(coin, 1, Integer::sum);
+        long start = metrics.startTimer();
+        int coin = coinFactory.coinId(weight, size);
+        if (coin >= 0) {
+            MachineState previous = state;
+            addInsertedCoin(coin);
+            announceTransition(previous);
+            for (MachineListener listener : listeners) listener.coinInserted(coin);
+        } else {
+            rejectCoin();
+            for (MachineListener listener : listeners) listener.coinRejected();
+            coin = rejected;
         }
+        metrics.coinInserted(coin, start);
+    }
+
+    void rejectCoin() {
+        changeTray.add(rejected, 1);
     }
 
-    private void addInsertedCoin(Coin c) {
-        insertedCoins.merge(c, 1, Integer::sum);
-        insertedValue += c.value;
+    void addInsertedCoin(int coin) {
+        insertedCoins.add(coin, 1);
+        insertedValue += catalog.coinValue(coin);
         state = MachineState.COIN_INSERTED;
     }
 
     public void selectProduct(Product product) {
-        if (product.cost <= insertedValue) {
-            int rest = insertedValue - product.cost;
-            Optional<Map<Coin, Integer>> change = computeChange(rest);
-            if (products.containsKey(product) && products.get(product) > 0) {
-                change.ifPresent((c) -> buyProduct(product, c));
-                if (change.isEmpty()) state = MachineState.CANT_MAKE_CHANGE;
-            } else state = MachineState.SOLD_OUT;
-        } else state = MachineState.INSUFFICIENT_FUNDS;
-    }
-
-    private void buyProduct(Product product, Map<Coin, Integer> change) {
-        products.merge(product, -1, Integer::sum);
-        productTray.merge(product, 1, Integer::sum);
-
-        withdrawChange(change);
-        mergeCoins(machineCoins, insertedCoins);
-        clearInsertedCoins();
-        state = MachineState.PRODUCT_BOUGHT;
+        selectProduct(productId(product));
     }
 
-    private void clearInsertedCoins() {
-        insertedCoins.put(Coin.QUARTER, 0);
-        insertedCoins.put(Coin.DIME, 0);
-        insertedCoins.put(Coin.NICKEL, 0);
-        insertedValue = 0;
+    public void selectProduct(int product) {
+        long start = metrics.startTimer();
+        int cost = catalog.productCost(product);
+        if (cost <= insertedValue) {
+            int rest = insertedValue - cost;
+            if (products.get(product) <= 0) transition(MachineState.SOLD_OUT);
+            else if (!changeAvailability.mayMake(rest, machineCoins, machineCoins.version())) {
+                transition(MachineState.CANT_MAKE_CHANGE);
+            } else {
+                long changeStart = start != 0 ? System.nanoTime() : 0;
+                boolean canMakeChange = changeStrategy.computeChange(rest, machineCoins, change);
+                metrics.changeComputed(changeStart);
+                if (canMakeChange) buyProduct(product);
+                else transition(MachineState.CANT_MAKE_CHANGE);
+            }
+        } else transition(MachineState.INSUFFICIENT_FUNDS);
+        for (MachineListener listener : listeners) listener.selectionFinished(state);
+        metrics.productSelected(product, state, start);
     }
 
-    private void mergeCoins(Map<Coin, Integer> machineCoins, Map<Coin, Integer> insertedCoins) {
-        machineCoins.merge(Coin.QUARTER, insertedCoins.getOrDefault(Coin.QUARTER, 0), Integer::sum);
-        machineCoins.merge(Coin.DIME, insertedCoins.getOrDefault(Coin.DIME, 0), Integer::sum);
-        machineCoins.merge(Coin.NICKEL, insertedCoins.getOrDefault(Coin.NICKEL, 0), Integer::sum);
+    private void buyProduct(int product) {
+        withdrawChange();
+        completeSale(product);
+        transition(MachineState.PRODUCT_BOUGHT);
+
+        for (MachineListener listener : listeners) {
+            listener.productSold(product);
+            announceChange(listener);
+        }
     }
 
-    private void withdrawChange(Map<Coin, Integer> change) {
-        machineCoins.merge(Coin.QUARTER, -change.getOrDefault(Coin.QUARTER, 0), Integer::sum);
-        machineCoins.merge(Coin.DIME, -change.getOrDefault(Coin.DIME, 0), Integer::sum);
-        machineCoins.merge(Coin.NICKEL, -change.getOrDefault(Coin.NICKEL, 0), Integer::sum);
+    public void selectProducts(Cart cart) {
+        if (cart.isEmpty()) return;
+        if (cart.catalog() != catalog) throw new IllegalArgumentException("Cart was filled from another catalog");
+        long start = metrics.startTimer();
+        if (cart.total() <= insertedValue) {
+            int rest = insertedValue - cart.total();
+            if (!products.covers(cart.items)) transition(MachineState.SOLD_OUT);
+            else if (!changeAvailability.mayMake(rest, machineCoins, machineCoins.version())) {
+                transition(MachineState.CANT_MAKE_CHANGE);
+            } else {
+                long changeStart = start != 0 ? System.nanoTime() : 0;
+                boolean canMakeChange = changeStrategy.computeChange(rest, machineCoins, change);
+                metrics.changeComputed(changeStart);
+                if (canMakeChange) buyProducts(cart.items);
+                else transition(MachineState.CANT_MAKE_CHANGE);
+            }
+        } else transition(MachineState.INSUFFICIENT_FUNDS);
+        for (MachineListener listener : listeners) listener.selectionFinished(state);
+        metrics.cartSelected(cart.items, state, start);
+    }
 
-        mergeCoins(changeTray, change);
+    private void buyProducts(Inventory items) {
+        withdrawChange();
+        products.subtractAll(items);
+        productTray.addAll(items);
+        machineCoins.addAll(insertedCoins);
+        clearInsertedCoins();
+        transition(MachineState.PRODUCT_BOUGHT);
+
+        for (MachineListener listener : listeners) {
+            for (int i = 0; i < items.size(); i++) {
+                for (int unit = 0; unit < items.get(i); unit++) listener.productSold(i);
+            }
+            announceChange(listener);
+        }
     }
 
-    private Optional<Map<Coin, Integer>> computeChange(int rest) {
-        Map<Coin, Integer> changeToReturn = new HashMap<>();
+    private void announceChange(MachineListener listener) {
+        for (int i = 0; i < change.size(); i++) {
+            if (change.get(i) > 0) listener.changeDispensed(i, change.get(i));
+        }
+    }
 
-        if (rest == 0) return Optional.of(changeToReturn);
+    void completeSale(int product) {
+        products.add(product, -1);
+        productTray.add(product, 1);
 
-        int maxQuartersNeeded =
-                Math.min(machineCoins.getOrDefault(Coin.QUARTER, 0), rest / Coin.QUARTER.value);
+        machineCoins.addAll(insertedCoins);
+        clearInsertedCoins();
+    }
 
-        int maxDimesNeeded =
-                Math.min(machineCoins.getOrDefault(Coin.DIME, 0), rest / Coin.DIME.value);
+    void dispenseChange(int coin, int count) {
+        machineCoins.add(coin, -count);
+        changeTray.add(coin, count);
+    }
 
-        int maxNickelsNeeded =
-                Math.min(machineCoins.getOrDefault(Coin.NICKEL, 0), rest / Coin.NICKEL.value);
+    private void clearInsertedCoins() {
+        insertedCoins.clear();
+        insertedValue = 0;
+    }
 
-        if (maxQuartersNeeded * Coin.QUARTER.value
-                + maxDimesNeeded * Coin.DIME.value
-                + maxNickelsNeeded * Coin.NICKEL.value
-                < rest) {
-            return Optional.empty();
-        }
-        return findChange(maxQuartersNeeded, maxDimesNeeded, maxNickelsNeeded, rest, changeToReturn);
-    }
-
-    private Optional<Map<Coin, Integer>> findChange(int quarters, int dimes, int nickels, int rest, Map<Coin, Integer> changeToReturn) {
-        int currentRestValue;
-        for (int qua = quarters; qua >= 0; qua--) {
-            for (int dim = dimes; dim >= 0; dim--) {
-                for (int nic = 0; nic <= nickels; nic++) {
-                    currentRestValue = qua * 25 + dim * 10 + nic * 5;
-                    if (currentRestValue > rest) {
-                        break;
-                    }
-                    if (currentRestValue == rest) {
-                        changeToReturn.put(Coin.QUARTER, qua);
-                        changeToReturn.put(Coin.DIME, dim);
-                        changeToReturn.put(Coin.NICKEL, nic);
-                        return Optional.of(changeToReturn);
-                    }
-                }
-            }
-        }
-        return Optional.empty();
+    private void withdrawChange() {
+        machineCoins.subtractAll(change);
+        changeTray.addAll(change);
     }
 
     public void resetState() {
@@ -129,55 +213,184 @@ public class VendingMachine {
                 || state.equals(MachineState.SOLD_OUT)
                 || state.equals(MachineState.COIN_INSERTED)
         ) {
-            state = insertedValue == 0
+            transition(insertedValue == 0
                     ? MachineState.INSERT_COIN
-                    : MachineState.COIN_INSERTED;
+                    : MachineState.COIN_INSERTED);
+        }
+    }
+
+    private void transition(MachineState next) {
+        MachineState previous = state;
+        state = next;
+        announceTransition(previous);
+    }
+
+    private void announceTransition(MachineState previous) {
+        metrics.stateEntered(state);
+        if (!previous.equals(state)) {
+            for (MachineListener listener : listeners) listener.stateChanged(previous, state);
         }
     }
 
     public void returnCoins() {
-        changeTray.putAll(insertedCoins);
+        refundCoins();
+        for (MachineListener listener : listeners) listener.coinsReturned();
+    }
+
+    void refundCoins() {
+        changeTray.addAll(insertedCoins);
         clearInsertedCoins();
     }
 
     public void takeChange() {
+        emptyChangeTray();
+        for (MachineListener listener : listeners) listener.changeTaken();
+    }
+
+    void emptyChangeTray() {
         changeTray.clear();
     }
 
     public void takeProduct() {
+        emptyProductTray();
+        for (MachineListener listener : listeners) listener.productTaken();
+    }
+
+    void emptyProductTray() {
         productTray.clear();
     }
 
+    void setMetrics(MachineMetrics metrics) {
+        this.metrics.flush();
+        this.metrics = metrics;
+    }
+
+    public void flushMetrics() {
+        metrics.flush();
+    }
+
+    void addListener(MachineListener listener) {
+        listeners = Arrays.copyOf(listeners, listeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+    }
+
+    void removeListener(MachineListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                MachineListener[] remaining = new MachineListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, remaining, 0, i);
+                System.arraycopy(listeners, i + 1, remaining, i, remaining.length - i);
+                listeners = remaining;
+                return;
+            }
+        }
+    }
+
+    public boolean isExactChangeOnly() {
+        return changeAvailability.exactChangeOnly(machineCoins, machineCoins.version());
+    }
+
     int getInsertedValue() {
         return insertedValue;
     }
 
+    void writeTo(ByteBuffer buffer) {
+        buffer.putInt(insertedValue).putInt(state.ordinal());
+        products.writeTo(buffer);
+        productTray.writeTo(buffer);
+        machineCoins.writeTo(buffer);
+        insertedCoins.writeTo(buffer);
+        changeTray.writeTo(buffer);
+    }
+
+    void readFrom(ByteBuffer buffer) {
+        insertedValue = buffer.getInt();
+        state = STATES[buffer.getInt()];
+        products.readFrom(buffer);
+        productTray.readFrom(buffer);
+        machineCoins.readFrom(buffer);
+        insertedCoins.readFrom(buffer);
+        changeTray.readFrom(buffer);
+    }
+
+    int productId(Product product) {
+        int id = productIds[product.ordinal()];
+        if (id < 0) throw new IllegalArgumentException("Catalog has no product " + product);
+        return id;
+    }
+
+    public int productCount(int product) {
+        return products.get(product);
+    }
+
+    public void stockProduct(int product, int count) {
+        setProductStock(product, count);
+        for (MachineListener listener : listeners) listener.productStocked(product, count);
+    }
+
+    void setProductStock(int product, int count) {
+        products.set(product, count);
+    }
+
+    public int coinCount(int coin) {
+        return machineCoins.get(coin);
+    }
+
+    public void stockCoins(int coin, int count) {
+        setCoinStock(coin, count);
+        for (MachineListener listener : listeners) listener.coinsStocked(coin, count);
+    }
+
+    void setCoinStock(int coin, int count) {
+        machineCoins.set(coin, count);
+    }
+
+    int productTrayCount(int product) {
+        return productTray.get(product);
+    }
+
+    int changeTrayCount(int coin) {
+        return changeTray.get(coin);
+    }
+
+    Inventory machineCoins() {
+        return machineCoins;
+    }
+
+    int rejectedCoins() {
+        return changeTray.get(rejected);
+    }
+
     int getQuarters() {
-        return machineCoins.getOrDefault(Coin.QUARTER, 0);
+        return getMachineCoins().getOrDefault(Coin.QUARTER, 0);
     }
 
     int getDimes() {
-        return machineCoins.getOrDefault(Coin.DIME, 0);
+        return getMachineCoins().getOrDefault(Coin.DIME, 0);
     }
 
     int getNickels() {
-        return machineCoins.getOrDefault(Coin.NICKEL, 0);
+        return getMachineCoins().getOrDefault(Coin.NICKEL, 0);
     }
 
     public Map<Coin, Integer> getMachineCoins() {
-        return machineCoins;
+        Map<Coin, Integer> view = machineCoinsView;
+        if (view == null) machineCoinsView = view = machineCoins.view(Coin.class, coinIds, this::stockCoins);
+        return view;
     }
 
     public Map<Product, Integer> getProducts() {
-        return products;
+        Map<Product, Integer> view = productsView;
+        if (view == null) productsView = view = products.view(Product.class, productIds, this::stockProduct);
+        return view;
     }
 
     Map<Coin, Integer> getInsertedCoins() {
-        return insertedCoins;
+        return insertedCoinsView;
     }
 
     Map<Coin, Integer> getChangeTray() {
-        return changeTray;
+        return changeTrayView;
     }
 
     MachineState getState() {
@@ -185,6 +398,22 @@ public class VendingMachine {
     }
 
     Map<Product, Integer> getProductTray() {
-        return productTray;
+        return productTrayView;
+    }
+
+    long productsVersion() {
+        return products.version();
+    }
+
+    long productTrayVersion() {
+        return productTray.version();
+    }
+
+    long machineCoinsVersion() {
+        return machineCoins.version();
+    }
+
+    long changeTrayVersion() {
+        return changeTray.version();
     }
 }
@@ -0,0 +1,113 @@
+package com.codecool.machine;
+
+import com.codecool.machine.vending_machine.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommandParserTest {
+    private final CommandParser parser = new CommandParser();
+    private final Command command = new Command();
+
+    @Test
+    void should_parseValidCommands() {
+        assertAll(
+                () -> assertTrue(parser.parse("insert 2500 250", command)),
+                () -> assertEquals(Command.Type.INSERT, command.type()),
+                () -> assertEquals(2500, command.weight()),
+                () -> assertEquals(250, command.size()),
+                () -> assertTrue(parser.parse("SELECT Cola", command)),
+                () -> assertEquals(Product.COLA, command.product()),
+                () -> assertTrue(parser.parse("take change extra", command)),
+                () -> assertEquals(Command.Type.TAKE_CHANGE, command.type())
+        );
+    }
+
+    @Test
+    void should_reportErrorCodesInsteadOfThrowing() {
+        assertAll(
+                () -> assertFalse(parser.parse("   ", command)),
+                () -> assertEquals(CommandError.EMPTY_INPUT, command.error()),
+                () -> assertFalse(parser.parse("insert 25x 250", command)),
+                () -> assertEquals(CommandError.INVALID_NUMBER, command.error()),
+                () -> assertEquals("For input string: \"25x\"", command.errorMessage()),
+                () -> assertFalse(parser.parse("select gum", command)),
+                () -> assertEquals("No enum constant com.codecool.machine.vending_machine.Product.GUM", command.errorMessage())
+        );
+    }
+
+    @Test
+    void should_matchLegacySplitParser() {
+        List<String> samples = List.of("", " ", "  ", "exit", "EXIT ", " exit", "exit now", "select", "select ",
+                "select  cola", "select cola", "select Candy", "select chips ", "select gum", "take", "take ",
+                "take product", "take change", "take money", "return", "return coins", "insert", "insert 1",
+                "insert 1 ", "insert 2500 250", "insert  2500 250", "insert -5 +7", "insert + 1", "insert - 1",
+                "insert 2147483647 -2147483648", "insert 2147483648 1", "insert 1 -2147483649", "insert ab 1",
+                "insert 1 0x10", "INSERT 10 20 30", "dance");
+        for (String sample : samples) {
+            assertEquals(legacy(sample), parsed(sample), "'" + sample + "'");
+        }
+
+        Random random = new Random(7);
+        String[] words = {"insert", "select", "take", "return", "exit", "product", "change", "cola", "CHIPS",
+                "candy", "2500", "250", "-1", "+", "99999999999", "x", ""};
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder line = new StringBuilder();
+            int tokens = random.nextInt(5);
+            for (int t = 0; t < tokens; t++) {
+                if (t > 0 || random.nextInt(8) == 0) line.append(' ');
+                line.append(words[random.nextInt(words.length)]);
+            }
+            if (random.nextInt(8) == 0) line.append(' ');
+            String sample = line.toString();
+            assertEquals(legacy(sample), parsed(sample), "'" + sample + "'");
+        }
+    }
+
+    private String parsed(String line) {
+        if (!parser.parse(line, command)) return "error: " + command.errorMessage();
+        return switch (command.type()) {
+            case SELECT -> "select " + command.product();
+            case INSERT -> "insert " + command.weight() + " " + command.size();
+            default -> command.type().toString();
+        };
+    }
+
+    private String legacy(String line) {
+        String[] request = line.toLowerCase().split(" ");
+        try {
+            if (request.length == 0) throw new IllegalArgumentException("Empty input");
+            switch (request[0]) {
+                case "exit" -> {
+                    return "EXIT";
+                }
+                case "select" -> {
+                    if (request.length < 2) throw new IllegalArgumentException("To buy cola type 'select cola'");
+                    return "select " + Product.valueOf(request[1].toUpperCase());
+                }
+                case "take" -> {
+                    if (request.length < 2) throw new IllegalArgumentException("Type 'take product' or 'take change'");
+                    if (request[1].equals("product")) return "TAKE_PRODUCT";
+                    if (request[1].equals("change")) return "TAKE_CHANGE";
+                    throw new IllegalArgumentException("Type 'take product' or 'take change'");
+                }
+                case "return" -> {
+                    return "RETURN";
+                }
+                case "insert" -> {
+                    if (request.length < 3) throw new IllegalArgumentException("To insert quarter type 'insert 2500 250'");
+                    return "insert " + Integer.parseInt(request[1]) + " " + Integer.parseInt(request[2]);
+                }
+                default -> throw new IllegalArgumentException("Incorrect command");
+            }
+        } catch (IllegalArgumentException e) {
+            return "error: " + e.getMessage();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.codecool.machine;
+
+import com.codecool.machine.vending_machine.Coin;
+import com.codecool.machine.vending_machine.Product;
+import com.codecool.machine.vending_machine.VendingMachine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommandServerTest {
+    CommandServer server;
+    VendingMachine machine;
+    Thread thread;
+    final AtomicReference<IOException> failure = new AtomicReference<>();
+
+    @BeforeEach
+    void init() throws IOException {
+        machine = new VendingMachine();
+        machine.getMachineCoins().put(Coin.QUARTER, 1);
+        machine.getProducts().put(Product.CHIPS, 1);
+        server = new CommandServer(0, new VendingMachine[]{machine}, 1);
+        thread = new Thread(() -> {
+            try {
+                server.run();
+            } catch (IOException e) {
+                failure.set(e);
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @AfterEach
+    void close() throws IOException {
+        server.close();
+    }
+
+    @Test
+    void should_answerCommandsWithMachineDisplay() throws IOException {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress("localhost", server.getPort()));
+            InputStream in = socket.getInputStream();
+            OutputStream out = socket.getOutputStream();
+
+            String greeting = readResponse(in);
+            out.write("insert 2500 250\ninsert 2500 250\n".getBytes(StandardCharsets.US_ASCII));
+            String first = readResponse(in);
+            String second = readResponse(in);
+            out.write("select chips\n".getBytes(StandardCharsets.US_ASCII));
+            String bought = readResponse(in);
+            out.write("select gum\n".getBytes(StandardCharsets.US_ASCII));
+            String error = readResponse(in);
+
+            assertAll(
+                    () -> assertEquals("EXACT CHANGE ONLY\n> ", greeting),
+                    () -> assertEquals("25\n> ", first),
+                    () -> assertEquals("50\n> ", second),
+                    () -> assertEquals("THANK YOU\n> ", bought),
+                    () -> assertTrue(error.startsWith("No enum constant")),
+                    () -> assertEquals(0, machine.getProducts().get(Product.CHIPS))
+            );
+        }
+    }
+
+    @Test
+    void should_serveOneConnectionPerMachineAtATime() throws IOException {
+        try (Socket first = new Socket(); Socket second = new Socket()) {
+            first.connect(new InetSocketAddress("localhost", server.getPort()));
+            readResponse(first.getInputStream());
+            first.getOutputStream().write("insert 2500 250\n".getBytes(StandardCharsets.US_ASCII));
+            String inserted = readResponse(first.getInputStream());
+
+            second.connect(new InetSocketAddress("localhost", server.getPort()));
+            second.setSoTimeout(300);
+            assertThrows(SocketTimeoutException.class, () -> second.getInputStream().read());
+
+            first.getOutputStream().write("exit\n".getBytes(StandardCharsets.US_ASCII));
+            second.setSoTimeout(5000);
+            String greeting = readResponse(second.getInputStream());
+
+            assertAll(
+                    () -> assertEquals("25\n> ", inserted),
+                    () -> assertEquals("EXACT CHANGE ONLY\n> ", greeting),
+                    () -> assertEquals(1, machine.getMachineCoins().get(Coin.QUARTER))
+            );
+        }
+    }
+
+    @Test
+    void should_returnFromRunWhenClosed() throws Exception {
+        server.close();
+        thread.join(5000);
+
+        assertAll(
+                () -> assertFalse(thread.isAlive()),
+                () -> assertNull(failure.get())
+        );
+    }
+
+    String readResponse(InputStream in) throws IOException {
+        StringBuilder response = new StringBuilder();
+        while (response.length() < 2 || !response.substring(response.length() - 2).equals("> ")) {
+            int c = in.read();
+            if (c < 0) throw new IOException("Connection closed");
+            response.append((char) c);
+        }
+        return response.toString();
+    }
+}
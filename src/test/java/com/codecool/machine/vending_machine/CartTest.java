@@ -0,0 +1,102 @@
+package com.codecool.machine.vending_machine;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CartTest {
+    VendingMachine machine;
+
+    @BeforeEach
+    void init() {
+        machine = new VendingMachine();
+        machine.getProducts().put(Product.COLA, 1);
+        machine.getProducts().put(Product.CANDY, 2);
+        machine.getProducts().put(Product.CHIPS, 2);
+        machine.getMachineCoins().put(Coin.DIME, 1);
+    }
+
+    @Test
+    void should_buyWholeCartWithOneChange() {
+        insertQuarters(9);
+        machine.selectProducts(new Cart().add(Product.COLA).add(Product.CANDY).add(Product.CHIPS));
+
+        assertAll(
+                () -> assertEquals(MachineState.PRODUCT_BOUGHT, machine.getState()),
+                () -> assertEquals(1, machine.getProductTray().get(Product.COLA)),
+                () -> assertEquals(1, machine.getProductTray().get(Product.CANDY)),
+                () -> assertEquals(1, machine.getProductTray().get(Product.CHIPS)),
+                () -> assertEquals(0, machine.getProducts().get(Product.COLA)),
+                () -> assertEquals(1, machine.getChangeTray().get(Coin.DIME)),
+                () -> assertEquals(9, machine.getMachineCoins().get(Coin.QUARTER)),
+                () -> assertEquals(0, machine.getInsertedValue())
+        );
+    }
+
+    @Test
+    void should_rollBackWhenAnyItemIsSoldOut() {
+        insertQuarters(8);
+        machine.selectProducts(new Cart().add(Product.COLA, 2));
+
+        assertAll(
+                () -> assertEquals(MachineState.SOLD_OUT, machine.getState()),
+                () -> assertEquals(1, machine.getProducts().get(Product.COLA)),
+                () -> assertEquals(0, machine.getProductTray().get(Product.COLA)),
+                () -> assertEquals(200, machine.getInsertedValue())
+        );
+    }
+
+    @Test
+    void should_rollBackWhenTotalChangeCantBeMade() {
+        machine.getMachineCoins().put(Coin.DIME, 0);
+        insertQuarters(5);
+        machine.selectProducts(new Cart().add(Product.CANDY).add(Product.CANDY));
+
+        assertAll(
+                () -> assertEquals(MachineState.INSUFFICIENT_FUNDS, machine.getState()),
+                () -> assertEquals(125, machine.getInsertedValue())
+        );
+
+        insertQuarters(1);
+        machine.selectProducts(new Cart().add(Product.CANDY, 2));
+        assertAll(
+                () -> assertEquals(MachineState.CANT_MAKE_CHANGE, machine.getState()),
+                () -> assertEquals(2, machine.getProducts().get(Product.CANDY)),
+                () -> assertEquals(150, machine.getInsertedValue())
+        );
+    }
+
+    @Test
+    void should_reserveCartAtomicallyInSession() {
+        ConcurrentVendingMachine shared = new ConcurrentVendingMachine();
+        shared.stockProduct(Product.CHIPS, 1);
+        shared.stockProduct(Product.COLA, 1);
+        shared.stockCoins(Coin.QUARTER, 2);
+        Session session = shared.openSession();
+        for (int i = 0; i < 8; i++) session.insertCoin(2500, 250);
+
+        session.selectProducts(new Cart().add(Product.COLA).add(Product.CHIPS, 2));
+        MachineState refused = session.getState();
+        session.selectProducts(new Cart().add(Product.COLA).add(Product.CHIPS));
+
+        assertAll(
+                () -> assertEquals(MachineState.SOLD_OUT, refused),
+                () -> assertEquals(MachineState.PRODUCT_BOUGHT, session.getState()),
+                () -> assertEquals(0, shared.getProductCount(Product.CHIPS)),
+                () -> assertEquals(0, shared.getProductCount(Product.COLA)),
+                () -> assertEquals(2, session.getChangeTray().get(Coin.QUARTER))
+        );
+    }
+
+    @Test
+    void should_refuseNonPositiveCounts() {
+        assertThrows(IllegalArgumentException.class, () -> new Cart().add(Product.COLA, 0));
+    }
+
+    private void insertQuarters(int count) {
+        for (int i = 0; i < count; i++) machine.insertCoin(2500, 250);
+    }
+}
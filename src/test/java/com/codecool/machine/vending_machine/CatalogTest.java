@@ -0,0 +1,134 @@
+package com.codecool.machine.vending_machine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogTest {
+
+    @Test
+    void should_assignDenseIdsInFileOrder() {
+        Catalog catalog = Catalog.parse("# coins\n"
+                + "coin PESO 100 4000 300 20 5\n"
+                + "\n"
+                + "coin CENTAVO 1 300 20 3 1   # smallest\n"
+                + "product WATER 150 12\n"
+                + "\tproduct GUM 25 7\n");
+
+        assertAll(
+                () -> assertEquals(2, catalog.coinCount()),
+                () -> assertEquals(0, catalog.coinId("PESO")),
+                () -> assertEquals(1, catalog.coinId("CENTAVO")),
+                () -> assertEquals(-1, catalog.coinId("DIME")),
+                () -> assertEquals(1, catalog.coinValue(1)),
+                () -> assertEquals(4000, catalog.coinWeight(0)),
+                () -> assertEquals(5, catalog.coinSizeError(0)),
+                () -> assertEquals(2, catalog.productCount()),
+                () -> assertEquals("GUM", catalog.productName(1)),
+                () -> assertEquals(150, catalog.productCost(catalog.productId("WATER"))),
+                () -> assertEquals(7, catalog.productSlot(1))
+        );
+    }
+
+    @Test
+    void should_describeStandardEnums() {
+        Catalog catalog = Catalog.standard();
+        for (Coin coin : Coin.values()) {
+            if (coin.value <= 0) continue;
+            int id = catalog.coinId(coin.name());
+            assertAll(
+                    () -> assertEquals(coin.value, catalog.coinValue(id)),
+                    () -> assertEquals(coin.weight, catalog.coinWeight(id)),
+                    () -> assertEquals(coin.sizeError, catalog.coinSizeError(id))
+            );
+        }
+        for (Product product : Product.values()) {
+            assertEquals(product.cost, catalog.productCost(catalog.productId(product.name())));
+        }
+    }
+
+    @Test
+    void should_mapOnlyEnumsTheCatalogNames() {
+        Catalog catalog = Catalog.parse("coin PESO 100 4000 300 20 5\ncoin QUARTER 25 2500 250 25 10\nproduct MANGO 150 1\n");
+        assertAll(
+                () -> assertEquals(-1, catalog.coinId(Coin.NICKEL)),
+                () -> assertEquals(1, catalog.coinId(Coin.QUARTER)),
+                () -> assertEquals(Coin.QUARTER, catalog.coin(1)),
+                () -> assertNull(catalog.coin(0)),
+                () -> assertEquals(-1, catalog.productId(Product.COLA)),
+                () -> assertNull(catalog.product(0))
+        );
+    }
+
+    @Test
+    void should_readStartingFloatAndStock() {
+        Catalog catalog = Catalog.parse("coin PESO 100 4000 300 20 5\n"
+                + "coin CENTAVO 1 300 20 3 1\n"
+                + "product WATER 150 12\n"
+                + "product GUM 25 7\n"
+                + "float CENTAVO 40\n"
+                + "stock GUM 3\n");
+        Catalog standard = Catalog.standard();
+
+        assertAll(
+                () -> assertEquals(0, catalog.startingCoins(0)),
+                () -> assertEquals(40, catalog.startingCoins(1)),
+                () -> assertEquals(0, catalog.startingStock(0)),
+                () -> assertEquals(3, catalog.startingStock(1)),
+                () -> assertEquals(0, standard.startingCoins(standard.coinId(Coin.DIME))),
+                () -> assertEquals(1, standard.startingCoins(standard.coinId(Coin.QUARTER))),
+                () -> assertEquals(0, standard.startingStock(standard.productId(Product.COLA))),
+                () -> assertEquals(2, standard.startingStock(standard.productId(Product.CHIPS)))
+        );
+    }
+
+    @Test
+    void should_reportLineOfBrokenEntry() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> Catalog.parse("coin NICKEL 5 500 50 5 2\nproduct COLA 1OO 1\n"));
+        assertTrue(error.getMessage().startsWith("Catalog line 2:"), error.getMessage());
+    }
+
+    @Test
+    void should_refuseDuplicatesAndBadValues() {
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> Catalog.parse("product COLA 100 1\nproduct COLA 90 2\n")),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> Catalog.parse("product COLA 100 1\nproduct CHIPS 50 1\n")),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> Catalog.parse("coin NICKEL 0 500 50 5 2\n")),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> Catalog.parse("coin NICKEL 5 500 50\n")),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> Catalog.parse("coin NICKEL 5 500 50 5 2 9\n")),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> Catalog.parse("float NICKEL 1\ncoin NICKEL 5 500 50 5 2\n")),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> Catalog.parse("product COLA 100 1\nstock COLA -1\n")),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> Catalog.parse("product COLA 100 1\nstock COLA 1\nstock COLA 2\n")),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> Catalog.parse("token NICKEL\n"))
+        );
+    }
+
+    @Test
+    void should_loadHundredsOfProducts() {
+        StringBuilder text = new StringBuilder("coin NICKEL 5 500 50 5 2\n");
+        for (int i = 0; i < 500; i++) {
+            text.append("product SKU").append(i).append(' ').append(5 * (i + 1)).append(' ').append(i).append('\n');
+        }
+        Catalog catalog = Catalog.parse(text);
+
+        assertAll(
+                () -> assertEquals(500, catalog.productCount()),
+                () -> assertEquals(321, catalog.productId("SKU321")),
+                () -> assertEquals(2500, catalog.productCost(499))
+        );
+    }
+}
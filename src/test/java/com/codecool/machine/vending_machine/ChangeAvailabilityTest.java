@@ -0,0 +1,57 @@
+package com.codecool.machine.vending_machine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeAvailabilityTest {
+    private static final Catalog CATALOG = Catalog.standard();
+    private static final int QUARTER = CATALOG.coinId(Coin.QUARTER);
+    private static final int DIME = CATALOG.coinId(Coin.DIME);
+    private static final int NICKEL = CATALOG.coinId(Coin.NICKEL);
+
+    private final ChangeAvailability availability = new ChangeAvailability();
+    private final ChangeStrategy strategy = new ExhaustiveChangeStrategy();
+    private final Inventory coins = new Inventory(CATALOG.coinCount() + 1);
+    private final Inventory change = new Inventory(CATALOG.coinCount() + 1);
+
+    @Test
+    void should_agreeWithSearchWhileCoinsComeAndGo() {
+        Random random = new Random(5);
+        int[] denominations = {QUARTER, DIME, NICKEL};
+        for (int step = 0; step < 2_000; step++) {
+            int coin = denominations[random.nextInt(denominations.length)];
+            coins.set(coin, Math.max(0, coins.get(coin) + random.nextInt(7) - 3));
+            for (int amount = 0; amount <= 300; amount += 5) {
+                assertEquals(strategy.computeChange(amount, coins, change),
+                        availability.mayMake(amount, coins, coins.version()),
+                        "amount " + amount + " with " + coins);
+            }
+        }
+    }
+
+    @Test
+    void should_rejectAmountsNoCoinDivides() {
+        coins.set(NICKEL, 100);
+        assertFalse(availability.mayMake(7, coins, coins.version()));
+    }
+
+    @Test
+    void should_requireExactChangeWhenSmallAmountsCantBeMade() {
+        coins.set(QUARTER, 10);
+        coins.set(NICKEL, 1);
+        boolean withOneNickel = availability.exactChangeOnly(coins, coins.version());
+        coins.set(DIME, 2);
+        boolean withDimes = availability.exactChangeOnly(coins, coins.version());
+
+        assertAll(
+                () -> assertTrue(withOneNickel),
+                () -> assertFalse(withDimes)
+        );
+    }
+}
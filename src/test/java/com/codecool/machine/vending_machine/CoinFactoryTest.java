@@ -0,0 +1,62 @@
+package com.codecool.machine.vending_machine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CoinFactoryTest {
+    private final Catalog catalog = Catalog.standard();
+    private final CoinFactory coinFactory = catalog.coinFactory();
+
+    @Test
+    void should_recognizeSameCoinsAsLinearScan() {
+        for (int weight = 0; weight <= 3000; weight++) {
+            for (int size = 0; size <= 300; size++) {
+                assertEquals(linearScan(weight, size), catalog.coin(coinFactory.coinId(weight, size)),
+                        "weight " + weight + ", size " + size);
+            }
+        }
+    }
+
+    @Test
+    void should_rejectReadingsFarOutsideAnyWindow() {
+        assertAll(
+                () -> assertEquals(-1, coinFactory.coinId(-1, -1)),
+                () -> assertEquals(-1, coinFactory.coinId(Integer.MIN_VALUE, 250)),
+                () -> assertEquals(-1, coinFactory.coinId(2500, Integer.MAX_VALUE)),
+                () -> assertEquals(-1, coinFactory.coinId(Integer.MAX_VALUE, Integer.MIN_VALUE))
+        );
+    }
+
+    @Test
+    void should_refuseOverlappingToleranceWindows() {
+        assertThrows(IllegalArgumentException.class, () -> new CoinFactory(Coin.DIME, Coin.NICKEL, Coin.DIME));
+    }
+
+    @Test
+    void should_recognizeCoinsOfLoadedCatalogById() {
+        Catalog catalog = Catalog.parse("coin PESO 100 4000 300 20 5\ncoin CENTAVO 1 300 20 3 1\n");
+        CoinFactory factory = new CoinFactory(catalog);
+
+        assertAll(
+                () -> assertEquals(0, factory.coinId(4015, 297)),
+                () -> assertEquals(1, factory.coinId(300, 20)),
+                () -> assertEquals(-1, factory.coinId(2500, 250)),
+                () -> assertEquals("PESO", catalog.coinName(factory.coinId(4000, 300)))
+        );
+    }
+
+    private Coin linearScan(int weight, int size) {
+        for (Coin coin : Coin.values()) {
+            if (weight >= coin.weight - coin.weightError
+                    && weight <= coin.weight + coin.weightError
+                    && size >= coin.size - coin.sizeError
+                    && size <= coin.size + coin.sizeError) {
+                return coin;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,120 @@
+package com.codecool.machine.vending_machine;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ConcurrentVendingMachineTest {
+    static final int THREADS = 8;
+    static final int ATTEMPTS = 500;
+
+    ConcurrentVendingMachine machine;
+
+    @BeforeEach
+    void init() {
+        machine = new ConcurrentVendingMachine();
+    }
+
+    @Test
+    void should_sellAsSingleSession() {
+        machine.stockProduct(Product.CHIPS, 1);
+        machine.stockCoins(Coin.QUARTER, 1);
+        Session session = machine.openSession();
+        insert25Cents(session, 3);
+        session.selectProduct(Product.CHIPS);
+
+        assertAll(
+                () -> assertEquals(MachineState.PRODUCT_BOUGHT, session.getState()),
+                () -> assertEquals(0, machine.getProductCount(Product.CHIPS)),
+                () -> assertEquals(3, machine.getCoinCount(Coin.QUARTER)),
+                () -> assertEquals(1, session.getChangeTray().get(Coin.QUARTER)),
+                () -> assertEquals(1, session.getProductTray().get(Product.CHIPS)),
+                () -> assertEquals(0, session.getInsertedValue())
+        );
+    }
+
+    @Test
+    void should_notOversellUnderContention() throws Exception {
+        machine.stockProduct(Product.CHIPS, 1000);
+        AtomicInteger sold = new AtomicInteger();
+
+        runConcurrently(() -> {
+            Session session = machine.openSession();
+            for (int i = 0; i < ATTEMPTS; i++) {
+                insert25Cents(session, 2);
+                session.selectProduct(Product.CHIPS);
+                if (session.getState().equals(MachineState.PRODUCT_BOUGHT)) sold.incrementAndGet();
+                else session.returnCoins();
+                session.resetState();
+            }
+        });
+
+        assertAll(
+                () -> assertEquals(1000, sold.get()),
+                () -> assertEquals(0, machine.getProductCount(Product.CHIPS)),
+                () -> assertEquals(2000, machine.getCoinCount(Coin.QUARTER))
+        );
+    }
+
+    @Test
+    void should_notDoubleSpendChangeUnderContention() throws Exception {
+        machine.stockProduct(Product.CANDY, 10_000);
+        machine.stockCoins(Coin.NICKEL, 300);
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger nickelsGiven = new AtomicInteger();
+
+        runConcurrently(() -> {
+            Session session = machine.openSession();
+            for (int i = 0; i < ATTEMPTS; i++) {
+                insert25Cents(session, 3);
+                session.selectProduct(Product.CANDY);
+                if (session.getState().equals(MachineState.PRODUCT_BOUGHT)) sold.incrementAndGet();
+                else session.returnCoins();
+                nickelsGiven.addAndGet(session.getChangeTray().get(Coin.NICKEL));
+                session.takeChange();
+                session.resetState();
+            }
+        });
+
+        assertAll(
+                () -> assertEquals(150, sold.get()),
+                () -> assertEquals(300, nickelsGiven.get()),
+                () -> assertEquals(0, machine.getCoinCount(Coin.NICKEL)),
+                () -> assertEquals(10_000 - 150, machine.getProductCount(Product.CANDY))
+        );
+    }
+
+    void runConcurrently(Runnable task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                task.run();
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+    }
+
+    void insert25Cents(Session session, int quantity) {
+        for (int i = 0; i < quantity; i++) {
+            session.insertCoin(2500, 250); // quarter
+        }
+    }
+}
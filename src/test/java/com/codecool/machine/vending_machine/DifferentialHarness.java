@@ -0,0 +1,372 @@
+package com.codecool.machine.vending_machine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+final class DifferentialHarness {
+    static final int STOCK_PRODUCT = 0;
+    static final int STOCK_COINS = 1;
+    static final int INSERT = 2;
+    static final int SELECT = 3;
+    static final int CART = 4;
+    static final int RETURN = 5;
+    static final int TAKE_CHANGE = 6;
+    static final int TAKE_PRODUCT = 7;
+    static final int RESET = 8;
+
+    private static final Product[] PRODUCTS = Product.values();
+    private static final Coin[] COINS = Coin.values();
+    private static final Coin[] SPENDABLE = Arrays.stream(COINS).filter(c -> !c.equals(Coin.INVALID)).toArray(Coin[]::new);
+    private static final int OBSERVATION = 2 + 2 * PRODUCTS.length + 2 * COINS.length;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final Supplier<Engine> reference;
+    private final Supplier<Engine> candidate;
+    private final int maxOps;
+
+    DifferentialHarness(Supplier<Engine> reference, Supplier<Engine> candidate, int maxOps) {
+        this.reference = reference;
+        this.candidate = candidate;
+        this.maxOps = maxOps;
+    }
+
+    static Supplier<Engine> machine(Supplier<VendingMachine> machines) {
+        return () -> new MachineEngine(machines.get());
+    }
+
+    static Supplier<Engine> session() {
+        return () -> new SessionEngine(new ConcurrentVendingMachine());
+    }
+
+    static int op(int code, int first, int second) {
+        return code << 16 | first << 8 | second;
+    }
+
+    Divergence run(long seed, int sequences) {
+        OptionalInt first = IntStream.range(0, sequences).parallel()
+                .filter(sequence -> divergesAt(generate(seed, sequence)) >= 0)
+                .findFirst();
+        if (first.isEmpty()) return null;
+        int[] ops = generate(seed, first.getAsInt());
+        return shrink(first.getAsInt(), ops);
+    }
+
+    int[] generate(long seed, int sequence) {
+        SplittableRandom random = new SplittableRandom(seed + sequence * GOLDEN_GAMMA);
+        int length = PRODUCTS.length + SPENDABLE.length + 1 + random.nextInt(maxOps);
+        int[] ops = new int[length];
+        int next = 0;
+        for (Product product : PRODUCTS) ops[next++] = op(STOCK_PRODUCT, product.ordinal(), random.nextInt(4));
+        for (Coin coin : SPENDABLE) ops[next++] = op(STOCK_COINS, coin.ordinal(), random.nextInt(5));
+        while (next < length) {
+            int roll = random.nextInt(100);
+            if (roll < 40) ops[next++] = op(INSERT, random.nextInt(SPENDABLE.length + 1), 0);
+            else if (roll < 60) ops[next++] = op(SELECT, random.nextInt(PRODUCTS.length), 0);
+            else if (roll < 65) {
+                ops[next++] = op(CART, random.nextInt(PRODUCTS.length), random.nextInt(PRODUCTS.length));
+            } else if (roll < 75) ops[next++] = op(RETURN, 0, 0);
+            else if (roll < 83) ops[next++] = op(TAKE_CHANGE, 0, 0);
+            else if (roll < 91) ops[next++] = op(TAKE_PRODUCT, 0, 0);
+            else ops[next++] = op(RESET, 0, 0);
+        }
+        return ops;
+    }
+
+    int divergesAt(int[] ops) {
+        Engine expected = reference.get();
+        Engine actual = candidate.get();
+        int[] expectedView = new int[OBSERVATION];
+        int[] actualView = new int[OBSERVATION];
+        for (int step = 0; step < ops.length; step++) {
+            apply(expected, ops[step]);
+            apply(actual, ops[step]);
+            expected.observe(expectedView);
+            actual.observe(actualView);
+            if (!Arrays.equals(expectedView, actualView)) return step;
+        }
+        return -1;
+    }
+
+    private Divergence shrink(int sequence, int[] ops) {
+        ops = Arrays.copyOf(ops, divergesAt(ops) + 1);
+        boolean progress = true;
+        while (progress) {
+            progress = false;
+            for (int chunk = Math.max(1, ops.length / 2); chunk >= 1; chunk /= 2) {
+                int from = 0;
+                while (from + chunk <= ops.length) {
+                    int[] smaller = new int[ops.length - chunk];
+                    System.arraycopy(ops, 0, smaller, 0, from);
+                    System.arraycopy(ops, from + chunk, smaller, from, smaller.length - from);
+                    int step = divergesAt(smaller);
+                    if (step >= 0) {
+                        ops = Arrays.copyOf(smaller, step + 1);
+                        progress = true;
+                    } else from += chunk;
+                }
+            }
+            for (int i = 0; i < ops.length; i++) {
+                int code = ops[i] >>> 16;
+                int count = ops[i] & 0xFF;
+                if (code != STOCK_PRODUCT && code != STOCK_COINS) continue;
+                for (int smaller = 0; smaller < count; smaller++) {
+                    int original = ops[i];
+                    ops[i] = op(code, ops[i] >>> 8 & 0xFF, smaller);
+                    if (divergesAt(ops) >= 0) {
+                        progress = true;
+                        break;
+                    }
+                    ops[i] = original;
+                }
+            }
+        }
+        int step = divergesAt(ops);
+        Engine expected = reference.get();
+        Engine actual = candidate.get();
+        for (int i = 0; i <= step; i++) {
+            apply(expected, ops[i]);
+            apply(actual, ops[i]);
+        }
+        int[] expectedView = new int[OBSERVATION];
+        int[] actualView = new int[OBSERVATION];
+        expected.observe(expectedView);
+        actual.observe(actualView);
+        return new Divergence(sequence, ops, expectedView, actualView);
+    }
+
+    private static void apply(Engine engine, int op) {
+        int first = op >>> 8 & 0xFF;
+        int second = op & 0xFF;
+        switch (op >>> 16) {
+            case STOCK_PRODUCT -> engine.stockProduct(PRODUCTS[first], second);
+            case STOCK_COINS -> engine.stockCoins(COINS[first], second);
+            case INSERT -> {
+                if (first < SPENDABLE.length) engine.insertCoin(SPENDABLE[first].weight, SPENDABLE[first].size);
+                else engine.insertCoin(1, 1);
+            }
+            case SELECT -> engine.selectProduct(PRODUCTS[first]);
+            case CART -> engine.selectProducts(new Cart().add(PRODUCTS[first]).add(PRODUCTS[second]));
+            case RETURN -> engine.returnCoins();
+            case TAKE_CHANGE -> engine.takeChange();
+            case TAKE_PRODUCT -> engine.takeProduct();
+            case RESET -> engine.resetState();
+            default -> throw new IllegalArgumentException("Unknown op " + Integer.toHexString(op));
+        }
+    }
+
+    static String describe(int op) {
+        int first = op >>> 8 & 0xFF;
+        int second = op & 0xFF;
+        return switch (op >>> 16) {
+            case STOCK_PRODUCT -> "stock " + PRODUCTS[first] + " " + second;
+            case STOCK_COINS -> "stock " + COINS[first] + " " + second;
+            case INSERT -> "insert " + (first < SPENDABLE.length ? SPENDABLE[first] : "1/1");
+            case SELECT -> "select " + PRODUCTS[first];
+            case CART -> "cart " + PRODUCTS[first] + " " + PRODUCTS[second];
+            case RETURN -> "return";
+            case TAKE_CHANGE -> "take change";
+            case TAKE_PRODUCT -> "take product";
+            case RESET -> "reset";
+            default -> Integer.toHexString(op);
+        };
+    }
+
+    static String describeObservation(int[] view) {
+        int next = 2;
+        StringBuilder text = new StringBuilder(MachineState.values()[view[0]].name())
+                .append(" inserted=").append(view[1]);
+        for (String part : new String[]{" products=", " productTray="}) {
+            text.append(part).append(Arrays.toString(Arrays.copyOfRange(view, next, next + PRODUCTS.length)));
+            next += PRODUCTS.length;
+        }
+        for (String part : new String[]{" coins=", " changeTray="}) {
+            text.append(part).append(Arrays.toString(Arrays.copyOfRange(view, next, next + COINS.length)));
+            next += COINS.length;
+        }
+        return text.toString();
+    }
+
+    interface Engine {
+        void stockProduct(Product product, int count);
+
+        void stockCoins(Coin coin, int count);
+
+        void insertCoin(int weight, int size);
+
+        void selectProduct(Product product);
+
+        void selectProducts(Cart cart);
+
+        void returnCoins();
+
+        void takeChange();
+
+        void takeProduct();
+
+        void resetState();
+
+        void observe(int[] view);
+    }
+
+    static final class Divergence {
+        final int sequence;
+        final int[] ops;
+        final int[] expected;
+        final int[] actual;
+
+        Divergence(int sequence, int[] ops, int[] expected, int[] actual) {
+            this.sequence = sequence;
+            this.ops = ops;
+            this.expected = expected;
+            this.actual = actual;
+        }
+
+        List<String> steps() {
+            List<String> steps = new ArrayList<>(ops.length);
+            for (int op : ops) steps.add(describe(op));
+            return steps;
+        }
+
+        @Override
+        public String toString() {
+            return "Sequence " + sequence + " diverges after " + steps()
+                    + "\n  expected " + describeObservation(expected)
+                    + "\n  actual   " + describeObservation(actual);
+        }
+    }
+
+    private static final class MachineEngine implements Engine {
+        private final VendingMachine machine;
+
+        MachineEngine(VendingMachine machine) {
+            this.machine = machine;
+        }
+
+        @Override
+        public void stockProduct(Product product, int count) {
+            machine.getProducts().put(product, count);
+        }
+
+        @Override
+        public void stockCoins(Coin coin, int count) {
+            machine.getMachineCoins().put(coin, count);
+        }
+
+        @Override
+        public void insertCoin(int weight, int size) {
+            machine.insertCoin(weight, size);
+        }
+
+        @Override
+        public void selectProduct(Product product) {
+            machine.selectProduct(product);
+        }
+
+        @Override
+        public void selectProducts(Cart cart) {
+            machine.selectProducts(cart);
+        }
+
+        @Override
+        public void returnCoins() {
+            machine.returnCoins();
+        }
+
+        @Override
+        public void takeChange() {
+            machine.takeChange();
+        }
+
+        @Override
+        public void takeProduct() {
+            machine.takeProduct();
+        }
+
+        @Override
+        public void resetState() {
+            machine.resetState();
+        }
+
+        @Override
+        public void observe(int[] view) {
+            int next = 0;
+            view[next++] = machine.getState().ordinal();
+            view[next++] = machine.getInsertedValue();
+            for (Product product : PRODUCTS) view[next++] = machine.getProducts().get(product);
+            for (Product product : PRODUCTS) view[next++] = machine.getProductTray().get(product);
+            for (Coin coin : COINS) view[next++] = machine.getMachineCoins().get(coin);
+            for (Coin coin : COINS) view[next++] = machine.getChangeTray().get(coin);
+        }
+    }
+
+    private static final class SessionEngine implements Engine {
+        private final ConcurrentVendingMachine machine;
+        private final Session session;
+
+        SessionEngine(ConcurrentVendingMachine machine) {
+            this.machine = machine;
+            session = machine.openSession();
+        }
+
+        @Override
+        public void stockProduct(Product product, int count) {
+            machine.stockProduct(product, count - machine.getProductCount(product));
+        }
+
+        @Override
+        public void stockCoins(Coin coin, int count) {
+            machine.stockCoins(coin, count - machine.getCoinCount(coin));
+        }
+
+        @Override
+        public void insertCoin(int weight, int size) {
+            session.insertCoin(weight, size);
+        }
+
+        @Override
+        public void selectProduct(Product product) {
+            session.selectProduct(product);
+        }
+
+        @Override
+        public void selectProducts(Cart cart) {
+            session.selectProducts(cart);
+        }
+
+        @Override
+        public void returnCoins() {
+            session.returnCoins();
+        }
+
+        @Override
+        public void takeChange() {
+            session.takeChange();
+        }
+
+        @Override
+        public void takeProduct() {
+            session.takeProduct();
+        }
+
+        @Override
+        public void resetState() {
+            session.resetState();
+        }
+
+        @Override
+        public void observe(int[] view) {
+            int next = 0;
+            view[next++] = session.getState().ordinal();
+            view[next++] = session.getInsertedValue();
+            for (Product product : PRODUCTS) view[next++] = machine.getProductCount(product);
+            for (Product product : PRODUCTS) view[next++] = session.getProductTray().get(product);
+            for (Coin coin : COINS) view[next++] = machine.getCoinCount(coin);
+            for (Coin coin : COINS) view[next++] = session.getChangeTray().get(coin);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.codecool.machine.vending_machine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DifferentialHarnessTest {
+    static final long SEED = Long.getLong("differential.seed", 2024);
+    static final int SEQUENCES = Integer.getInteger("differential.sequences", 20_000);
+    static final int MAX_OPS = 40;
+
+    static final Supplier<DifferentialHarness.Engine> REFERENCE = DifferentialHarness.machine(VendingMachine::new);
+
+    @Test
+    void should_matchReferenceWithExhaustiveChange() {
+        DifferentialHarness harness = new DifferentialHarness(REFERENCE,
+                DifferentialHarness.machine(() -> new VendingMachine(new ExhaustiveChangeStrategy())), MAX_OPS);
+
+        DifferentialHarness.Divergence divergence = harness.run(SEED, SEQUENCES);
+        assertNull(divergence, () -> divergence.toString());
+    }
+
+    @Test
+    void should_matchReferenceWithConcurrentSession() {
+        DifferentialHarness harness = new DifferentialHarness(REFERENCE, DifferentialHarness.session(), MAX_OPS);
+
+        DifferentialHarness.Divergence divergence = harness.run(SEED, SEQUENCES);
+        assertNull(divergence, () -> divergence.toString());
+    }
+
+    @Test
+    void should_shrinkDivergenceToMinimalReproducer() {
+        ChangeStrategy knapsack = new KnapsackChangeStrategy();
+        DifferentialHarness harness = new DifferentialHarness(REFERENCE, DifferentialHarness.machine(
+                () -> new VendingMachine((rest, coins, change) -> rest <= 20 && knapsack.computeChange(rest, coins, change))),
+                MAX_OPS);
+
+        DifferentialHarness.Divergence divergence = harness.run(SEED, SEQUENCES);
+
+        assertNotNull(divergence);
+        assertAll(
+                () -> assertTrue(everyStepIsNeeded(harness, divergence.ops), divergence::toString),
+                () -> assertEquals(DifferentialHarness.SELECT, divergence.ops[divergence.ops.length - 1] >>> 16 & 0xFF,
+                        divergence::toString),
+                () -> assertEquals(MachineState.PRODUCT_BOUGHT.ordinal(), divergence.expected[0]),
+                () -> assertEquals(MachineState.CANT_MAKE_CHANGE.ordinal(), divergence.actual[0])
+        );
+    }
+
+    private static boolean everyStepIsNeeded(DifferentialHarness harness, int[] ops) {
+        for (int skip = 0; skip < ops.length; skip++) {
+            int[] without = new int[ops.length - 1];
+            System.arraycopy(ops, 0, without, 0, skip);
+            System.arraycopy(ops, skip + 1, without, skip, without.length - skip);
+            if (harness.divergesAt(without) >= 0) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,225 @@
+package com.codecool.machine.vending_machine;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class DisplayTest {
+    private final InputStream stdin = System.in;
+    private final ByteArrayOutputStream rendered = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream formatted = new ByteArrayOutputStream();
+    private VendingMachine machine;
+    private Display display;
+    private FormattedDisplay reference;
+
+    @BeforeEach
+    void init() {
+        machine = new VendingMachine();
+        for (Coin coin : new Coin[]{Coin.NICKEL, Coin.DIME, Coin.QUARTER}) machine.getMachineCoins().put(coin, 10);
+        machine.getProducts().put(Product.COLA, 1);
+        machine.getProducts().put(Product.CHIPS, 5);
+        display = new Display(machine, new PrintStream(rendered, true, StandardCharsets.US_ASCII));
+        reference = new FormattedDisplay(machine, new PrintStream(formatted, true, StandardCharsets.US_ASCII));
+    }
+
+    @AfterEach
+    void restoreInput() {
+        display.close();
+        System.setIn(stdin);
+    }
+
+    @Test
+    void should_renderEveryStateLikeFormattedOutput() {
+        List<String> expected = new ArrayList<>();
+        List<String> actual = new ArrayList<>();
+        Set<MachineState> shown = EnumSet.noneOf(MachineState.class);
+
+        render(expected, actual, shown);
+        machine.insertCoin(2500, 250);
+        render(expected, actual, shown);
+        machine.selectProduct(Product.CHIPS);
+        render(expected, actual, shown);
+        machine.resetState();
+        for (int i = 0; i < 3; i++) machine.insertCoin(2500, 250);
+        machine.selectProduct(Product.CANDY);
+        render(expected, actual, shown);
+        machine.resetState();
+        machine.selectProduct(Product.CHIPS);
+        display.displayChangeTray();
+        display.displayProductTray();
+        reference.displayChangeTray();
+        reference.displayProductTray();
+        render(expected, actual, shown);
+        machine.resetState();
+        for (Coin coin : new Coin[]{Coin.NICKEL, Coin.DIME, Coin.QUARTER}) machine.getMachineCoins().put(coin, 0);
+        for (int i = 0; i < 3; i++) machine.insertCoin(2500, 250);
+        machine.selectProduct(Product.CHIPS);
+        render(expected, actual, shown);
+
+        assertAll(
+                () -> assertEquals(EnumSet.allOf(MachineState.class), shown),
+                () -> assertEquals(expected, actual)
+        );
+    }
+
+    @Test
+    void should_rebuildCachedSectionsWhenStockOrCoinsChange() {
+        String first = startScreen();
+        String repeated = startScreen();
+        machine.stockProduct(machine.catalog().productId(Product.CANDY), 7);
+        String restocked = startScreen();
+        String formattedRestocked = reference.startScreen();
+        machine.stockCoins(machine.catalog().coinId(Coin.DIME), 3);
+        String refloated = startScreen();
+        String formattedRefloated = reference.startScreen();
+
+        assertAll(
+                () -> assertEquals(first, repeated),
+                () -> assertNotEquals(first, restocked),
+                () -> assertEquals(formattedRestocked, restocked),
+                () -> assertNotEquals(restocked, refloated),
+                () -> assertEquals(formattedRefloated, refloated)
+        );
+    }
+
+    @Test
+    void should_bufferMessagesUntilMachineDisplay() {
+        display.displayMessage("Unknown command");
+        display.displayChangeTray();
+        String beforeDisplay = rendered.toString(StandardCharsets.US_ASCII);
+        display.machineDisplay();
+
+        assertAll(
+                () -> assertEquals("", beforeDisplay),
+                () -> assertEquals("Unknown command\nChange:\nname     coins    \n\nINSERT COIN\n",
+                        rendered.toString(StandardCharsets.US_ASCII))
+        );
+    }
+
+    private void render(List<String> expected, List<String> actual, Set<MachineState> shown) {
+        shown.add(machine.getState());
+        reference.machineDisplay();
+        display.machineDisplay();
+        expected.add(formatted.toString(StandardCharsets.US_ASCII));
+        actual.add(rendered.toString(StandardCharsets.US_ASCII));
+        formatted.reset();
+        rendered.reset();
+    }
+
+    private String startScreen() {
+        System.setIn(new ByteArrayInputStream("\n".getBytes(StandardCharsets.US_ASCII)));
+        display.startScreen();
+        String screen = rendered.toString(StandardCharsets.US_ASCII);
+        rendered.reset();
+        return screen;
+    }
+
+    private static class FormattedDisplay {
+        private final VendingMachine machine;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private final PrintStream screen = new PrintStream(buffer, true, StandardCharsets.US_ASCII);
+        private final PrintStream out;
+
+        FormattedDisplay(VendingMachine machine, PrintStream out) {
+            this.machine = machine;
+            this.out = out;
+        }
+
+        String startScreen() {
+            buffer.reset();
+            screen.println("Welcome to vending machine simulator!\n");
+            screen.println("Accepted coins:");
+            for (String column : new String[]{"name", "value", "weight", "size", "available"}) {
+                screen.printf("%-9s", column);
+            }
+            screen.println();
+            for (Coin coin : new Coin[]{Coin.NICKEL, Coin.DIME, Coin.QUARTER}) {
+                screen.println(String.format("%-9s", coin.toString())
+                        + String.format("%-9s", coin.value)
+                        + String.format("%-9s", coin.weight)
+                        + String.format("%-9s", coin.size)
+                        + String.format("%-9s", machine.getMachineCoins().getOrDefault(coin, 0))
+                );
+            }
+            screen.println();
+            screen.println("Available products:");
+            for (String column : new String[]{"name", "cost", "available"}) {
+                screen.printf("%-9s", column);
+            }
+            screen.println();
+            for (Product product : Product.values()) {
+                screen.println(String.format("%-9s", product.toString())
+                        + String.format("%-9s", product.cost)
+                        + String.format("%-9s", machine.getProducts().getOrDefault(product, 0))
+                );
+            }
+            screen.println();
+            screen.println("""
+                    To interact with the machine, type:
+                    insert $weight $size : to insert coin
+                    return               : to return inserted coins
+                    select $productName  : to buy product
+                    take product         : to take bought product
+                    take change          : to take change
+                    exit                 : to exit program
+                    """);
+            return buffer.toString(StandardCharsets.US_ASCII);
+        }
+
+        void machineDisplay() {
+            switch (machine.getState()) {
+                case INSERT_COIN -> out.println("INSERT COIN");
+                case SOLD_OUT -> out.println("SOLD OUT");
+                case COIN_INSERTED -> out.println(machine.getInsertedValue());
+                case PRODUCT_BOUGHT -> out.println("THANK YOU");
+                case INSUFFICIENT_FUNDS -> out.println("INSUFFICIENT FUNDS");
+                case CANT_MAKE_CHANGE -> out.println("CAN'T MAKE CHANGE, INSERT EXACT VALUE");
+            }
+        }
+
+        void displayChangeTray() {
+            out.println("Change:");
+            for (String column : new String[]{"name", "coins"}) {
+                out.printf("%-9s", column);
+            }
+            out.println();
+            for (Coin coin : new Coin[]{Coin.NICKEL, Coin.DIME, Coin.QUARTER}) {
+                if (machine.getChangeTray().getOrDefault(coin, 0) == 0) continue;
+                out.println(String.format("%-9s", coin.toString())
+                        + String.format("%-9s", machine.getChangeTray().get(coin))
+                );
+            }
+            out.println();
+        }
+
+        void displayProductTray() {
+            out.println("Bought products:");
+            for (String column : new String[]{"name", "cost", "bought"}) {
+                out.printf("%-9s", column);
+            }
+            out.println();
+            for (Product product : Product.values()) {
+                if (machine.getProductTray().getOrDefault(product, 0) == 0) continue;
+                out.println(String.format("%-9s", product.toString())
+                        + String.format("%-9s", product.cost)
+                        + String.format("%-9s", machine.getProductTray().get(product))
+                );
+            }
+            out.println();
+        }
+    }
+}
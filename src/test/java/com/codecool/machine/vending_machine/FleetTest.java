@@ -0,0 +1,114 @@
+package com.codecool.machine.vending_machine;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class FleetTest {
+    static final int MACHINES = 50_000;
+
+    Fleet fleet;
+    List<VendingMachine> machines;
+
+    @BeforeEach
+    void init() {
+        Random random = new Random(3);
+        fleet = new Fleet(16);
+        machines = new ArrayList<>();
+        for (int i = 0; i < MACHINES; i++) {
+            VendingMachine machine = new VendingMachine();
+            machine.getMachineCoins().put(Coin.QUARTER, random.nextInt(4));
+            machine.getMachineCoins().put(Coin.DIME, random.nextInt(4));
+            machine.getMachineCoins().put(Coin.NICKEL, random.nextInt(3));
+            for (Product product : Product.values()) {
+                machine.getProducts().put(product, random.nextInt(5));
+            }
+            machines.add(machine);
+            fleet.add(machine);
+        }
+    }
+
+    @Test
+    void should_sumCashPerCoin() {
+        long quarters = machines.stream().mapToLong(machine -> machine.getQuarters()).sum();
+        assertAll(
+                () -> assertEquals(MACHINES, fleet.size()),
+                () -> assertEquals(quarters, fleet.totalCoins(Coin.QUARTER)),
+                () -> assertEquals(quarters * 25, fleet.totalCash(Coin.QUARTER))
+        );
+    }
+
+    @Test
+    void should_findSoldOutMachines() {
+        int[] expected = new int[MACHINES];
+        int found = 0;
+        for (int id = 0; id < MACHINES; id++) {
+            if (machines.get(id).getProducts().get(Product.COLA) == 0) expected[found++] = id;
+        }
+        assertArrayEquals(Arrays.copyOf(expected, found), fleet.soldOut(Product.COLA));
+    }
+
+    @Test
+    void should_agreeWithChangeStrategyOnChangeAvailability() {
+        KnapsackChangeStrategy strategy = new KnapsackChangeStrategy();
+        Inventory change = new Inventory(Catalog.standard().coinCount() + 1);
+        for (int amount = 5; amount <= 100; amount += 5) {
+            boolean[] unable = new boolean[MACHINES];
+            for (int id : fleet.cantMakeChange(0, amount)) unable[id] = true;
+            for (int id = 0; id < 2_000; id++) {
+                assertEquals(!strategy.computeChange(amount, machines.get(id).machineCoins(), change), unable[id],
+                        "machine " + id + " amount " + amount);
+            }
+        }
+    }
+
+    @Test
+    void should_listMachinesThatCantMakeChange() {
+        KnapsackChangeStrategy strategy = new KnapsackChangeStrategy();
+        Inventory change = new Inventory(Catalog.standard().coinCount() + 1);
+        int[] ids = fleet.cantMakeChange(Product.CANDY.cost, 100);
+        for (int id : ids) {
+            assertFalse(strategy.computeChange(35, machines.get(id).machineCoins(), change));
+        }
+        long expected = machines.stream()
+                .filter(machine -> !strategy.computeChange(35, machine.machineCoins(), change))
+                .count();
+        assertEquals(expected, ids.length);
+    }
+
+    @Test
+    void should_findMachinesShortOfChangeInCatalogWithNewCoin() {
+        Catalog catalog = Catalog.parse("coin NICKEL 5 500 50 5 2\ncoin DIME 10 1000 100 10 4\n"
+                + "coin QUARTER 25 2500 250 25 10\ncoin LOONIE 100 6000 265 30 6\nproduct GUM 40 1\n");
+        Fleet loonies = new Fleet(catalog, 4);
+        KnapsackChangeStrategy strategy = new KnapsackChangeStrategy(catalog);
+        Inventory change = new Inventory(catalog.coinCount() + 1);
+        Random random = new Random(11);
+        List<VendingMachine> fleetMachines = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            VendingMachine machine = new VendingMachine(catalog);
+            for (int coin = 0; coin < catalog.coinCount(); coin++) machine.stockCoins(coin, random.nextInt(3));
+            fleetMachines.add(machine);
+            loonies.add(machine);
+        }
+
+        int[] ids = loonies.cantMakeChange(40, 200);
+        long expected = fleetMachines.stream()
+                .filter(machine -> !strategy.computeChange(160, machine.machineCoins(), change))
+                .count();
+        assertAll(
+                () -> assertEquals(expected, ids.length),
+                () -> assertEquals(fleetMachines.stream().mapToLong(machine -> machine.coinCount(3)).sum() * 100,
+                        loonies.totalCash(3))
+        );
+    }
+}
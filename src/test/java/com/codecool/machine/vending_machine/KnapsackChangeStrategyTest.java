@@ -0,0 +1,117 @@
+package com.codecool.machine.vending_machine;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KnapsackChangeStrategyTest {
+    private static final Catalog CATALOG = Catalog.standard();
+    private static final int QUARTER = CATALOG.coinId(Coin.QUARTER);
+    private static final int DIME = CATALOG.coinId(Coin.DIME);
+    private static final int NICKEL = CATALOG.coinId(Coin.NICKEL);
+    private static final Catalog NON_CANONICAL = Catalog.parse("coin QUARTER 25 2500 250 25 10\n"
+            + "coin TWENTY 20 2000 200 20 8\n"
+            + "coin NICKEL 5 500 50 5 2\n");
+
+    private final ChangeStrategy knapsack = new KnapsackChangeStrategy();
+
+    @Test
+    void should_returnSameChangeAsExhaustiveSearch() {
+        assertSameChangeAsExhaustiveSearch(CATALOG);
+    }
+
+    @Test
+    void should_returnSameChangeAsExhaustiveSearchForNonCanonicalCoins() {
+        assertSameChangeAsExhaustiveSearch(NON_CANONICAL);
+    }
+
+    @Test
+    void should_makeChangeWhereLargestCoinFirstFails() {
+        int quarter = NON_CANONICAL.coinId("QUARTER");
+        int twenty = NON_CANONICAL.coinId("TWENTY");
+        Inventory coins = new Inventory(NON_CANONICAL.coinCount() + 1);
+        coins.set(quarter, 3);
+        coins.set(twenty, 3);
+        Inventory change = new Inventory(NON_CANONICAL.coinCount() + 1);
+        boolean made = new KnapsackChangeStrategy(NON_CANONICAL).computeChange(40, coins, change);
+        assertAll(
+                () -> assertTrue(made),
+                () -> assertEquals(0, change.get(quarter)),
+                () -> assertEquals(2, change.get(twenty))
+        );
+    }
+
+    @Test
+    void should_notMakeChangeForUnreachableAmount() {
+        Inventory coins = coins(3, 0, 0);
+        Inventory change = new Inventory(CATALOG.coinCount() + 1);
+        assertAll(
+                () -> assertFalse(knapsack.computeChange(30, coins, change)),
+                () -> assertFalse(knapsack.computeChange(7, coins, change)),
+                () -> assertFalse(knapsack.computeChange(100, coins, change))
+        );
+    }
+
+    @Test
+    void should_makeChangeQuicklyFromLargeInventory() {
+        Inventory coins = coins(30_000, 30_000, 30_000);
+        Inventory change = new Inventory(CATALOG.coinCount() + 1);
+        assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+            for (int i = 0; i < 10_000; i++) {
+                int quarters = 30 + i % 10;
+                coins.set(QUARTER, quarters);
+                assertTrue(knapsack.computeChange(995, coins, change));
+                assertEquals(quarters, change.get(QUARTER));
+                assertEquals((995 - 25 * quarters) / 10, change.get(DIME));
+                assertEquals((995 - 25 * quarters) % 10 / 5, change.get(NICKEL));
+            }
+        });
+    }
+
+    private void assertSameChangeAsExhaustiveSearch(Catalog catalog) {
+        ChangeStrategy reference = new ExhaustiveChangeStrategy(catalog);
+        ChangeStrategy knapsack = new KnapsackChangeStrategy(catalog);
+        int[] ids = catalog.denominations().ids;
+        for (int first = 0; first <= 6; first++) {
+            for (int second = 0; second <= 6; second++) {
+                for (int third = 0; third <= 6; third++) {
+                    Inventory coins = new Inventory(catalog.coinCount() + 1);
+                    coins.set(ids[0], first);
+                    coins.set(ids[1], second);
+                    coins.set(ids[2], third);
+                    for (int rest = 0; rest <= 250; rest += 5) {
+                        Inventory expected = new Inventory(catalog.coinCount() + 1);
+                        Inventory actual = new Inventory(catalog.coinCount() + 1);
+                        String message = "rest " + rest + " with " + coins;
+                        assertEquals(reference.computeChange(rest, coins, expected),
+                                knapsack.computeChange(rest, coins, actual), message);
+                        assertArrayEquals(counts(expected), counts(actual), message);
+                    }
+                }
+            }
+        }
+    }
+
+    private Inventory coins(int quarters, int dimes, int nickels) {
+        Inventory coins = new Inventory(CATALOG.coinCount() + 1);
+        coins.set(QUARTER, quarters);
+        coins.set(DIME, dimes);
+        coins.set(NICKEL, nickels);
+        return coins;
+    }
+
+    private int[] counts(Inventory coins) {
+        int[] counts = new int[coins.size()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = coins.get(i);
+        }
+        return counts;
+    }
+}
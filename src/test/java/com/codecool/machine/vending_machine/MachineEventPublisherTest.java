@@ -0,0 +1,178 @@
+package com.codecool.machine.vending_machine;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MachineEventPublisherTest {
+    private final VendingMachine machine = new VendingMachine();
+
+    @Test
+    void should_emitCoinSaleChangeAndStateEventsInOrder() {
+        machine.getProducts().put(Product.CANDY, 1);
+        machine.getMachineCoins().put(Coin.DIME, 1);
+        MachineEventPublisher publisher = MachineEventPublisher.attach(machine, Runnable::run, 64);
+        Recorder recorder = new Recorder(Long.MAX_VALUE);
+        publisher.subscribe(recorder);
+
+        machine.insertCoin(600, 40);
+        for (int i = 0; i < 3; i++) machine.insertCoin(2500, 250);
+        machine.selectProduct(Product.CANDY);
+        machine.resetState();
+        publisher.close();
+
+        assertAll(
+                () -> assertEquals(List.of(
+                        "COIN_REJECTED",
+                        "STATE_CHANGED INSERT_COIN -> COIN_INSERTED",
+                        "COIN_ACCEPTED 1 x QUARTER",
+                        "COIN_ACCEPTED 1 x QUARTER",
+                        "COIN_ACCEPTED 1 x QUARTER",
+                        "STATE_CHANGED COIN_INSERTED -> PRODUCT_BOUGHT",
+                        "PRODUCT_SOLD CANDY",
+                        "CHANGE_DISPENSED 1 x DIME",
+                        "STATE_CHANGED PRODUCT_BOUGHT -> INSERT_COIN"), recorder.events),
+                () -> assertTrue(recorder.completed)
+        );
+    }
+
+    @Test
+    void should_deliverEventsAtEndOfEveryOperation() {
+        machine.getProducts().put(Product.CHIPS, 1);
+        machine.getMachineCoins().put(Coin.QUARTER, 1);
+        MachineEventPublisher publisher = MachineEventPublisher.attach(machine, Runnable::run, 64);
+        Recorder recorder = new Recorder(Long.MAX_VALUE);
+        publisher.subscribe(recorder);
+
+        for (int i = 0; i < 3; i++) machine.insertCoin(2500, 250);
+        List<String> afterInserts = List.copyOf(recorder.events);
+        machine.selectProduct(Product.CHIPS);
+        machine.takeProduct();
+        List<String> afterTakeProduct = List.copyOf(recorder.events);
+        machine.takeChange();
+
+        assertAll(
+                () -> assertEquals(List.of(
+                        "STATE_CHANGED INSERT_COIN -> COIN_INSERTED",
+                        "COIN_ACCEPTED 1 x QUARTER",
+                        "COIN_ACCEPTED 1 x QUARTER",
+                        "COIN_ACCEPTED 1 x QUARTER"), afterInserts),
+                () -> assertEquals("PRODUCT_TAKEN", afterTakeProduct.get(afterTakeProduct.size() - 1)),
+                () -> assertEquals("CHANGE_TAKEN", recorder.events.get(recorder.events.size() - 1))
+        );
+    }
+
+    @Test
+    void should_deliverOnlyRequestedEvents() {
+        MachineEventPublisher publisher = MachineEventPublisher.attach(machine, Runnable::run, 64);
+        Recorder recorder = new Recorder(2);
+        publisher.subscribe(recorder);
+
+        for (int i = 0; i < 5; i++) machine.insertCoin(600, 40);
+        assertEquals(2, recorder.events.size());
+
+        recorder.subscription.request(10);
+        assertEquals(5, recorder.events.size());
+    }
+
+    @Test
+    void should_dropEventsInsteadOfBlockingOnSlowSubscriber() {
+        MachineEventPublisher publisher = MachineEventPublisher.attach(machine, Runnable::run, 16);
+        Flow.Subscriber<MachineEvent> stalled = new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+            }
+
+            @Override
+            public void onNext(MachineEvent item) {
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        };
+        publisher.subscribe(stalled);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+            for (int i = 0; i < 100; i++) machine.insertCoin(600, 40);
+        });
+        assertEquals(84, publisher.dropped());
+    }
+
+    @Test
+    void should_stopDeliveringAfterCancel() {
+        MachineEventPublisher publisher = MachineEventPublisher.attach(machine, Runnable::run, 64);
+        Recorder recorder = new Recorder(Long.MAX_VALUE);
+        publisher.subscribe(recorder);
+
+        machine.insertCoin(600, 40);
+        recorder.subscription.cancel();
+        machine.insertCoin(600, 40);
+
+        assertEquals(List.of("COIN_REJECTED"), recorder.events);
+    }
+
+    @Test
+    void should_deliverOnExecutorThread() throws Exception {
+        MachineEventPublisher publisher = MachineEventPublisher.attach(machine);
+        CountDownLatch received = new CountDownLatch(1000);
+        publisher.subscribe(new Recorder(Long.MAX_VALUE) {
+            @Override
+            public void onNext(MachineEvent item) {
+                received.countDown();
+            }
+        });
+
+        for (int i = 0; i < 1000; i++) {
+            machine.insertCoin(600, 40);
+            while (i - (1000 - received.getCount()) >= MachineEventPublisher.DEFAULT_CAPACITY) Thread.onSpinWait();
+        }
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+        publisher.close();
+    }
+
+    private static class Recorder implements Flow.Subscriber<MachineEvent> {
+        final List<String> events = new ArrayList<>();
+        final long initialRequest;
+        Flow.Subscription subscription;
+        boolean completed;
+
+        Recorder(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(initialRequest);
+        }
+
+        @Override
+        public void onNext(MachineEvent item) {
+            events.add(item.toString());
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.codecool.machine.vending_machine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MachineSnapshotTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void should_restoreLedgersInsertedValueAndState() throws Exception {
+        VendingMachine machine = new VendingMachine();
+        machine.getProducts().put(Product.CHIPS, 3);
+        machine.getMachineCoins().put(Coin.DIME, 4);
+        machine.getMachineCoins().put(Coin.NICKEL, 1);
+        machine.insertCoin(2500, 250);
+        machine.insertCoin(2500, 250);
+        machine.insertCoin(2500, 250);
+        machine.selectProduct(Product.CHIPS);
+        machine.insertCoin(1000, 100);
+        machine.insertCoin(600, 40);
+        machine.selectProduct(Product.COLA);
+
+        Path file = directory.resolve("machine.snapshot");
+        MachineSnapshot.save(file, machine, 4096);
+        VendingMachine restored = new VendingMachine();
+        long journalOffset = MachineSnapshot.load(file, restored);
+
+        assertAll(
+                () -> assertEquals(4096, journalOffset),
+                () -> assertEquals(MachineState.INSUFFICIENT_FUNDS, restored.getState()),
+                () -> assertEquals(10, restored.getInsertedValue()),
+                () -> assertEquals(machine.getProducts(), restored.getProducts()),
+                () -> assertEquals(machine.getProductTray(), restored.getProductTray()),
+                () -> assertEquals(machine.getMachineCoins(), restored.getMachineCoins()),
+                () -> assertEquals(machine.getInsertedCoins(), restored.getInsertedCoins()),
+                () -> assertEquals(machine.getChangeTray(), restored.getChangeTray())
+        );
+    }
+
+    @Test
+    void should_roundTripWholeFleet() throws Exception {
+        Random random = new Random(16);
+        List<VendingMachine> machines = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            VendingMachine machine = new VendingMachine();
+            machine.getMachineCoins().put(Coin.QUARTER, random.nextInt(50));
+            machine.getProducts().put(Product.CANDY, random.nextInt(10));
+            machine.getChangeTray().put(Coin.INVALID, random.nextInt(3));
+            machines.add(machine);
+        }
+        Path file = directory.resolve("fleet.snapshot");
+        MachineSnapshot.saveAll(file, machines);
+
+        List<VendingMachine> restored = new ArrayList<>();
+        for (int i = 0; i < machines.size(); i++) restored.add(new VendingMachine());
+        MachineSnapshot.loadAll(file, restored);
+
+        for (int i = 0; i < machines.size(); i++) {
+            assertEquals(machines.get(i).getMachineCoins(), restored.get(i).getMachineCoins());
+            assertEquals(machines.get(i).getProducts(), restored.get(i).getProducts());
+            assertEquals(machines.get(i).getChangeTray(), restored.get(i).getChangeTray());
+        }
+    }
+
+    @Test
+    void should_refuseCorruptedSnapshot() throws Exception {
+        VendingMachine machine = new VendingMachine();
+        machine.getProducts().put(Product.COLA, 5);
+        Path file = directory.resolve("machine.snapshot");
+        MachineSnapshot.save(file, machine, 0);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{7}), MachineSnapshot.HEADER_SIZE + 11);
+        }
+
+        assertThrows(IOException.class, () -> MachineSnapshot.load(file, new VendingMachine()));
+    }
+
+    @Test
+    void should_refuseSnapshotOfDifferentFleetSize() throws Exception {
+        Path file = directory.resolve("fleet.snapshot");
+        MachineSnapshot.saveAll(file, List.of(new VendingMachine(), new VendingMachine()));
+
+        assertThrows(IOException.class, () -> MachineSnapshot.loadAll(file, List.of(new VendingMachine())));
+    }
+}
@@ -0,0 +1,146 @@
+package com.codecool.machine.vending_machine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OptimalChangeStrategyTest {
+    private static final Catalog CATALOG = Catalog.standard();
+    private static final int QUARTER = CATALOG.coinId(Coin.QUARTER);
+    private static final int DIME = CATALOG.coinId(Coin.DIME);
+    private static final int NICKEL = CATALOG.coinId(Coin.NICKEL);
+
+    private final ChangeStrategy reference = new ExhaustiveChangeStrategy();
+    private final ChangeStrategy fewestCoins = OptimalChangeStrategy.fewestCoins();
+
+    @Test
+    void should_dispenseFewestCoinsWheneverChangeExists() {
+        for (int quarters = 0; quarters <= 5; quarters++) {
+            for (int dimes = 0; dimes <= 5; dimes++) {
+                for (int nickels = 0; nickels <= 5; nickels++) {
+                    Inventory coins = coins(quarters, dimes, nickels);
+                    for (int rest = 0; rest <= 200; rest += 5) {
+                        Inventory change = new Inventory(CATALOG.coinCount() + 1);
+                        String message = "rest " + rest + " with " + coins;
+                        boolean found = fewestCoins.computeChange(rest, coins, change);
+                        assertEquals(reference.computeChange(rest, coins, new Inventory(CATALOG.coinCount() + 1)), found, message);
+                        if (!found) continue;
+                        assertEquals(rest, value(change), message);
+                        assertEquals(fewestCoins(rest, coins), coinCount(change), message);
+                        for (int i = 0; i < change.size(); i++) assertTrue(change.get(i) <= coins.get(i), message);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void should_spendDenominationsAboveTargetFirst() {
+        ChangeStrategy balanced = OptimalChangeStrategy.balanced(CATALOG, targets(Map.of(Coin.DIME, 10, Coin.NICKEL, 10)));
+        Inventory change = new Inventory(CATALOG.coinCount() + 1);
+
+        assertTrue(balanced.computeChange(10, coins(0, 2, 30), change));
+        assertAll(
+                () -> assertEquals(0, change.get(DIME)),
+                () -> assertEquals(2, change.get(NICKEL))
+        );
+
+        assertTrue(balanced.computeChange(10, coins(0, 30, 2), change));
+        assertAll(
+                () -> assertEquals(1, change.get(DIME)),
+                () -> assertEquals(0, change.get(NICKEL))
+        );
+    }
+
+    @Test
+    void should_reuseSolvedTableOnlyWhileCoinsAreUnchanged() {
+        Inventory coins = coins(1, 1, 1);
+        Inventory change = new Inventory(CATALOG.coinCount() + 1);
+
+        assertTrue(fewestCoins.computeChange(30, coins, change));
+        int[] thirty = {change.get(QUARTER), change.get(DIME), change.get(NICKEL)};
+        assertTrue(fewestCoins.computeChange(15, coins, change));
+        int[] fifteen = {change.get(QUARTER), change.get(DIME), change.get(NICKEL)};
+        coins.set(QUARTER, 0);
+        boolean thirtyWithoutQuarter = fewestCoins.computeChange(30, coins, change);
+        coins.set(DIME, 3);
+        assertTrue(fewestCoins.computeChange(30, coins, change));
+
+        assertAll(
+                () -> assertArrayEquals(new int[]{1, 0, 1}, thirty),
+                () -> assertArrayEquals(new int[]{0, 1, 1}, fifteen),
+                () -> assertFalse(thirtyWithoutQuarter),
+                () -> assertEquals(3, change.get(DIME)),
+                () -> assertEquals(0, change.get(NICKEL))
+        );
+    }
+
+    @Test
+    void should_refuseAmountsOffTheCoinGrid() {
+        Inventory change = new Inventory(CATALOG.coinCount() + 1);
+        assertAll(
+                () -> assertEquals(false, fewestCoins.computeChange(7, coins(5, 5, 5), change)),
+                () -> assertEquals(false, fewestCoins.computeChange(30, coins(3, 0, 0), change))
+        );
+    }
+
+    @Test
+    void should_sellThroughMachineWithSelectedPolicy() {
+        VendingMachine machine = new VendingMachine(ChangePolicy.fewestCoins());
+        machine.getProducts().put(Product.CANDY, 1);
+        machine.getMachineCoins().put(Coin.DIME, 1);
+        machine.getMachineCoins().put(Coin.NICKEL, 2);
+        for (int i = 0; i < 3; i++) machine.insertCoin(2500, 250);
+        machine.selectProduct(Product.CANDY);
+
+        assertAll(
+                () -> assertEquals(MachineState.PRODUCT_BOUGHT, machine.getState()),
+                () -> assertEquals(1, machine.getChangeTray().get(Coin.DIME)),
+                () -> assertEquals(0, machine.getChangeTray().get(Coin.NICKEL))
+        );
+    }
+
+    private int fewestCoins(int rest, Inventory coins) {
+        int fewest = Integer.MAX_VALUE;
+        for (int q = 0; q <= coins.get(QUARTER); q++) {
+            for (int d = 0; d <= coins.get(DIME); d++) {
+                for (int n = 0; n <= coins.get(NICKEL); n++) {
+                    if (q * 25 + d * 10 + n * 5 == rest) fewest = Math.min(fewest, q + d + n);
+                }
+            }
+        }
+        return fewest;
+    }
+
+    private int value(Inventory change) {
+        int value = 0;
+        for (int i = 0; i < CATALOG.coinCount(); i++) value += change.get(i) * CATALOG.coinValue(i);
+        return value;
+    }
+
+    private int coinCount(Inventory change) {
+        int count = 0;
+        for (int i = 0; i < change.size(); i++) count += change.get(i);
+        return count;
+    }
+
+    private int[] targets(Map<Coin, Integer> levels) {
+        int[] targets = new int[CATALOG.coinCount()];
+        levels.forEach((coin, level) -> targets[CATALOG.coinId(coin)] = level);
+        return targets;
+    }
+
+    private Inventory coins(int quarters, int dimes, int nickels) {
+        Inventory coins = new Inventory(CATALOG.coinCount() + 1);
+        coins.set(QUARTER, quarters);
+        coins.set(DIME, dimes);
+        coins.set(NICKEL, nickels);
+        return coins;
+    }
+}
@@ -0,0 +1,117 @@
+package com.codecool.machine.vending_machine;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RestockPlannerTest {
+    static final long HOUR = 3_600_000;
+
+    AtomicLong clock;
+    RestockPlanner planner;
+    VendingMachine busy;
+    VendingMachine idle;
+
+    @BeforeEach
+    void init() {
+        clock = new AtomicLong();
+        planner = new RestockPlanner(10, Map.of(Coin.QUARTER, 4, Coin.DIME, 4, Coin.NICKEL, 4), clock::get);
+        busy = stocked();
+        idle = stocked();
+        planner.add(busy);
+        planner.add(idle);
+    }
+
+    @Test
+    void should_projectSoldOutFromSalesRate() {
+        sell(busy, Product.CHIPS, 2, 1);
+        sell(busy, Product.CHIPS, 2, 2);
+
+        assertAll(
+                () -> assertEquals(3, planner.hoursToSoldOut(0, Product.CHIPS), 0.1),
+                () -> assertEquals(Double.POSITIVE_INFINITY, planner.hoursToSoldOut(0, Product.COLA)),
+                () -> assertEquals(Double.POSITIVE_INFINITY, planner.hoursToSoldOut(1, Product.CHIPS))
+        );
+    }
+
+    @Test
+    void should_projectCantMakeChangeFromCoinDrain() {
+        busy.getMachineCoins().put(Coin.DIME, 3);
+        busy.getMachineCoins().put(Coin.NICKEL, 0);
+        sell(busy, Product.CANDY, 3, 1);
+        double before = planner.hoursToCantMakeChange(0, Product.CANDY.cost);
+        sell(busy, Product.CANDY, 3, 2);
+        double after = planner.hoursToCantMakeChange(0, Product.CANDY.cost);
+
+        assertAll(
+                () -> assertEquals(2 / 1.02, before, 0.1),
+                () -> assertEquals(1 / 1.02, after, 0.1),
+                () -> assertEquals(Double.POSITIVE_INFINITY, planner.hoursToCantMakeChange(0, Product.COLA.cost)),
+                () -> assertEquals(Double.POSITIVE_INFINITY, planner.hoursToCantMakeChange(1, Product.CANDY.cost)),
+                () -> assertThrows(IllegalArgumentException.class, () -> planner.hoursToCantMakeChange(0, 1))
+        );
+    }
+
+    @Test
+    void should_planStopsForMachinesDueWithinHorizon() {
+        idle.getProducts().put(Product.COLA, 0);
+        sell(busy, Product.CHIPS, 2, 1);
+
+        RestockPlan plan = planner.plan(24);
+
+        assertAll(
+                () -> assertEquals(2, plan.stops()),
+                () -> assertEquals(1, plan.machine(0)),
+                () -> assertEquals(0, plan.hoursLeft(0)),
+                () -> assertEquals(0, plan.machine(1)),
+                () -> assertEquals(10, plan.products(0, Product.COLA)),
+                () -> assertEquals(6, plan.products(1, Product.CHIPS)),
+                () -> assertEquals(6 + 5, plan.totalProducts(Product.CHIPS)),
+                () -> assertEquals(2 + 2, plan.totalCoins(Coin.DIME)),
+                () -> assertEquals(0, plan.totalCoins(Coin.QUARTER)),
+                () -> assertEquals(1, planner.plan(0).stops())
+        );
+    }
+
+    @Test
+    void should_followManualRestock() {
+        sell(busy, Product.CHIPS, 2, 1);
+        busy.getProducts().put(Product.CHIPS, 10);
+
+        RestockPlan plan = planner.plan(Double.POSITIVE_INFINITY);
+
+        assertAll(
+                () -> assertEquals(2, plan.stops()),
+                () -> assertEquals(0, plan.machine(0)),
+                () -> assertEquals(0, plan.products(0, Product.CHIPS)),
+                () -> assertEquals(10 / 1.02, planner.hoursToSoldOut(0, Product.CHIPS), 0.2)
+        );
+    }
+
+    private VendingMachine stocked() {
+        VendingMachine machine = new VendingMachine();
+        machine.getProducts().put(Product.COLA, 5);
+        machine.getProducts().put(Product.CANDY, 5);
+        machine.getProducts().put(Product.CHIPS, 5);
+        machine.getMachineCoins().put(Coin.QUARTER, 4);
+        machine.getMachineCoins().put(Coin.DIME, 2);
+        machine.getMachineCoins().put(Coin.NICKEL, 4);
+        return machine;
+    }
+
+    private void sell(VendingMachine machine, Product product, int quarters, int atHour) {
+        clock.set(atHour * HOUR);
+        for (int i = 0; i < quarters; i++) machine.insertCoin(Coin.QUARTER.weight, Coin.QUARTER.size);
+        machine.selectProduct(product);
+        machine.returnCoins();
+        machine.takeProduct();
+        machine.takeChange();
+        machine.resetState();
+    }
+}
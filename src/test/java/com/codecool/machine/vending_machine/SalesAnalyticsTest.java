@@ -0,0 +1,88 @@
+package com.codecool.machine.vending_machine;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SalesAnalyticsTest {
+    VendingMachine machine;
+    AtomicLong clock;
+    SalesAnalytics analytics;
+
+    @BeforeEach
+    void init() {
+        machine = new VendingMachine();
+        machine.getProducts().put(Product.COLA, 1);
+        machine.getProducts().put(Product.CHIPS, 5);
+        machine.getMachineCoins().put(Coin.QUARTER, 4);
+        clock = new AtomicLong();
+        analytics = SalesAnalytics.attach(machine, clock::get, 1000, 3);
+    }
+
+    @Test
+    void should_countSalesAndChangeAfterTraysAreCleared() {
+        buy(Product.CHIPS, 3);
+        buy(Product.CHIPS, 3);
+
+        assertAll(
+                () -> assertEquals(2, analytics.sales(Product.CHIPS)),
+                () -> assertEquals(0, analytics.sales(Product.COLA)),
+                () -> assertEquals(2, analytics.changeDispensed(Coin.QUARTER)),
+                () -> assertEquals(2 * 3600.0 / 3, analytics.salesPerHour(Product.CHIPS))
+        );
+    }
+
+    @Test
+    void should_trackRefusalFrequencies() {
+        buy(Product.COLA, 4);
+        buy(Product.COLA, 4);
+        buy(Product.CHIPS, 1);
+        machine.getMachineCoins().put(Coin.QUARTER, 0);
+        buy(Product.CHIPS, 3);
+
+        assertAll(
+                () -> assertEquals(1, analytics.outcomes(MachineState.SOLD_OUT)),
+                () -> assertEquals(1, analytics.outcomes(MachineState.CANT_MAKE_CHANGE)),
+                () -> assertEquals(1, analytics.outcomes(MachineState.INSUFFICIENT_FUNDS)),
+                () -> assertEquals(0.25, analytics.frequency(MachineState.SOLD_OUT)),
+                () -> assertEquals(0.25, analytics.frequency(MachineState.PRODUCT_BOUGHT))
+        );
+    }
+
+    @Test
+    void should_forgetEventsOlderThanWindow() {
+        buy(Product.CHIPS, 2);
+        clock.set(1500);
+        buy(Product.CHIPS, 2);
+        clock.set(2999);
+        buy(Product.CHIPS, 2);
+
+        assertEquals(3, analytics.sales(Product.CHIPS));
+        clock.set(3000);
+        assertEquals(2, analytics.sales(Product.CHIPS));
+        buy(Product.CHIPS, 2);
+        clock.set(4000);
+        assertAll(
+                () -> assertEquals(2, analytics.sales(Product.CHIPS)),
+                () -> assertEquals(0, analytics.sales(Product.COLA))
+        );
+        clock.set(60_000);
+        assertAll(
+                () -> assertEquals(0, analytics.sales(Product.CHIPS)),
+                () -> assertEquals(0.0, analytics.frequency(MachineState.PRODUCT_BOUGHT))
+        );
+    }
+
+    private void buy(Product product, int quarters) {
+        for (int i = 0; i < quarters; i++) machine.insertCoin(Coin.QUARTER.weight, Coin.QUARTER.size);
+        machine.selectProduct(product);
+        machine.returnCoins();
+        machine.takeProduct();
+        machine.takeChange();
+        machine.resetState();
+    }
+}
@@ -0,0 +1,63 @@
+package com.codecool.machine.vending_machine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SessionExecutorTest {
+    private final ConcurrentVendingMachine machine = new ConcurrentVendingMachine();
+
+    @Test
+    void should_sellStockOnceAcrossThousandsOfThinkingCustomers() throws Exception {
+        machine.stockProduct(Product.CHIPS, 500);
+        machine.stockCoins(Coin.QUARTER, 10);
+        List<Future<MachineState>> visits = new ArrayList<>();
+
+        try (SessionExecutor executor = new SessionExecutor(machine)) {
+            for (int i = 0; i < 5_000; i++) {
+                visits.add(executor.submit(session -> {
+                    for (int coin = 0; coin < 3; coin++) {
+                        Thread.sleep(5);
+                        session.insertCoin(2500, 250);
+                    }
+                    session.selectProduct(Product.CHIPS);
+                    return session.getState();
+                }));
+            }
+        }
+
+        int bought = 0;
+        for (Future<MachineState> visit : visits) {
+            if (visit.get().equals(MachineState.PRODUCT_BOUGHT)) bought++;
+        }
+        int sold = bought;
+        assertAll(
+                () -> assertEquals(500, sold),
+                () -> assertEquals(0, machine.getProductCount(Product.CHIPS)),
+                () -> assertEquals(10 + 500 * 2, machine.getCoinCount(Coin.QUARTER))
+        );
+    }
+
+    @Test
+    void should_returnCoinsOfCustomerWhoWalksAway() throws Exception {
+        Session abandoned;
+        try (SessionExecutor executor = new SessionExecutor(machine)) {
+            abandoned = executor.submit(session -> {
+                session.insertCoin(2500, 250);
+                return session;
+            }).get();
+            assertEquals(0, executor.activeSessions());
+        }
+
+        assertAll(
+                () -> assertEquals(0, abandoned.getInsertedValue()),
+                () -> assertEquals(1, abandoned.getChangeTray().get(Coin.QUARTER)),
+                () -> assertEquals(0, machine.getCoinCount(Coin.QUARTER))
+        );
+    }
+}
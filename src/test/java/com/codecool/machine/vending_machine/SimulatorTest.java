@@ -0,0 +1,60 @@
+package com.codecool.machine.vending_machine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SimulatorTest {
+
+    @Test
+    void should_repeatRunsWithSameSeed() {
+        Scenario scenario = Scenario.of(42).weeks(4);
+        assertEquals(Simulator.run(scenario).toString(), Simulator.run(scenario).toString());
+    }
+
+    @Test
+    void should_accountForEveryCustomer() {
+        SimulationReport report = Simulator.run(Scenario.of(7).weeks(2));
+
+        assertAll(
+                () -> assertTrue(report.customers() > 0),
+                () -> assertEquals(report.customers(), report.sales() + report.lostToSoldOut()
+                        + report.lostToCantMakeChange() + report.lostToInsufficientFunds()),
+                () -> assertEquals(1, report.restocks())
+        );
+    }
+
+    @Test
+    void should_loseFewerSalesToChangeWithLargerFloat() {
+        SimulationReport thin = Simulator.run(Scenario.of(3).weeks(4).coinFloat(0, 0, 0));
+        SimulationReport thick = Simulator.run(Scenario.of(3).weeks(4).coinFloat(10, 10, 10));
+
+        assertTrue(thick.lostToCantMakeChange() < thin.lostToCantMakeChange(), thin + " vs " + thick);
+    }
+
+    @Test
+    void should_loseSalesToSoldOutWithoutRestocking() {
+        SimulationReport report = Simulator.run(Scenario.of(5).weeks(4).restock(10, 0));
+
+        assertAll(
+                () -> assertEquals(0, report.restocks()),
+                () -> assertEquals(30, report.sales()),
+                () -> assertTrue(report.lostToSoldOut() > 0)
+        );
+    }
+
+    @Test
+    void should_matchSequentialRunsWhenRunInParallel() {
+        List<Scenario> scenarios = List.of(Scenario.of(1), Scenario.of(2).coinFloat(4, 4, 4),
+                Scenario.of(3).customersPerHour(10), Scenario.of(4).payments(1, 0));
+        List<SimulationReport> reports = Simulator.runAll(scenarios);
+
+        for (int i = 0; i < scenarios.size(); i++) {
+            assertEquals(Simulator.run(scenarios.get(i)).toString(), reports.get(i).toString());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.codecool.machine.vending_machine;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StripedMachineMetricsTest {
+    VendingMachine machine;
+    StripedMachineMetrics metrics;
+
+    @BeforeEach
+    void init() {
+        machine = new VendingMachine();
+        machine.getProducts().put(Product.CHIPS, 1);
+        metrics = new StripedMachineMetrics(1);
+        metrics.attach(machine);
+    }
+
+    @Test
+    void should_countTransitionsCoinsAndSales() {
+        machine.insertCoin(2500, 250);
+        machine.insertCoin(600, 40);
+        machine.selectProduct(Product.CHIPS);
+        machine.insertCoin(2500, 250);
+        machine.insertCoin(2500, 250);
+        machine.selectProduct(Product.CHIPS);
+        machine.flushMetrics();
+        MetricsSnapshot snapshot = metrics.snapshot();
+
+        assertAll(
+                () -> assertEquals(3, snapshot.coinCount(Coin.QUARTER)),
+                () -> assertEquals(1, snapshot.coinCount(Coin.INVALID)),
+                () -> assertEquals(3, snapshot.stateCount(MachineState.COIN_INSERTED)),
+                () -> assertEquals(1, snapshot.stateCount(MachineState.INSUFFICIENT_FUNDS)),
+                () -> assertEquals(1, snapshot.stateCount(MachineState.CANT_MAKE_CHANGE)),
+                () -> assertEquals(0, snapshot.sales(Product.CHIPS)),
+                () -> assertEquals(4, snapshot.insertLatency().count()),
+                () -> assertEquals(2, snapshot.selectLatency().count()),
+                () -> assertEquals(0, snapshot.changeLatency().count())
+        );
+    }
+
+    @Test
+    void should_countStatesEnteredThroughReset() {
+        machine.insertCoin(2500, 250);
+        machine.insertCoin(2500, 250);
+        machine.selectProduct(Product.CHIPS);
+        machine.resetState();
+        machine.selectProduct(Product.CHIPS);
+        machine.resetState();
+        machine.flushMetrics();
+        MetricsSnapshot snapshot = metrics.snapshot();
+
+        assertAll(
+                () -> assertEquals(2, snapshot.stateCount(MachineState.COIN_INSERTED)),
+                () -> assertEquals(1, snapshot.stateCount(MachineState.PRODUCT_BOUGHT)),
+                () -> assertEquals(1, snapshot.stateCount(MachineState.INSUFFICIENT_FUNDS)),
+                () -> assertEquals(2, snapshot.stateCount(MachineState.INSERT_COIN))
+        );
+    }
+
+    @Test
+    void should_exportCounters() throws IOException {
+        machine.insertCoin(2500, 250);
+        machine.insertCoin(2500, 250);
+        machine.selectProduct(Product.CHIPS);
+        StringBuilder export = new StringBuilder();
+        metrics.snapshot().export(export);
+
+        assertAll(
+                () -> assertTrue(export.toString().contains("vending_sales_total{product=\"CHIPS\"} 1\n")),
+                () -> assertTrue(export.toString().contains("vending_state_total{state=\"PRODUCT_BOUGHT\"} 1\n")),
+                () -> assertTrue(export.toString().contains("vending_select_product_nanos_count 1\n"))
+        );
+    }
+
+    @Test
+    void should_bucketLatenciesWithinFewPercent() {
+        for (long value : new long[]{0, 63, 64, 65, 1000, 123_456, 10_000_000_000L}) {
+            long lowest = LatencyHistogram.lowestValue(LatencyHistogram.index(value));
+            assertTrue(lowest <= value && value - lowest <= value / 32, "value " + value + " bucketed at " + lowest);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.codecool.machine.vending_machine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TransactionBatchTest {
+    @Test
+    void should_reportStateAndChangePerOperation() {
+        VendingMachine machine = stockedMachine();
+        TransactionBatch.Result result = TransactionBatch.apply(machine, new long[]{
+                TransactionBatch.insert(2500, 250),
+                TransactionBatch.select(Product.CHIPS),
+                TransactionBatch.insert(2500, 250),
+                TransactionBatch.insert(2500, 250),
+                TransactionBatch.select(Product.CHIPS),
+                TransactionBatch.insert(600, 40),
+                TransactionBatch.insert(1000, 100),
+                TransactionBatch.returnCoins(),
+                TransactionBatch.takeChange()
+        });
+
+        assertAll(
+                () -> assertEquals(9, result.size()),
+                () -> assertEquals(MachineState.COIN_INSERTED, result.state(0)),
+                () -> assertEquals(MachineState.INSUFFICIENT_FUNDS, result.state(1)),
+                () -> assertEquals(MachineState.PRODUCT_BOUGHT, result.state(4)),
+                () -> assertEquals(25, result.change(4)),
+                () -> assertEquals(MachineState.INSERT_COIN, result.state(5)),
+                () -> assertEquals(10, result.change(7)),
+                () -> assertEquals(MachineState.INSERT_COIN, result.state(8))
+        );
+    }
+
+    @Test
+    void should_rejectSizesThatDoNotFitTheEncoding() {
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> TransactionBatch.insert(2500, (1 << 24) + 250)),
+                () -> assertThrows(IllegalArgumentException.class, () -> TransactionBatch.insert(2500, -1)),
+                () -> assertEquals(TransactionBatch.MAX_SIZE,
+                        TransactionBatch.insert(-1, TransactionBatch.MAX_SIZE) & TransactionBatch.MAX_SIZE)
+        );
+    }
+
+    @Test
+    void should_leaveMachineAsIndividualCallsWould() {
+        Random random = new Random(42);
+        long[] operations = new long[10_000];
+        VendingMachine expected = stockedMachine();
+        for (int i = 0; i < operations.length; i++) {
+            switch (random.nextInt(6)) {
+                case 0, 1 -> {
+                    operations[i] = TransactionBatch.insert(2500, 250);
+                    expected.insertCoin(2500, 250);
+                }
+                case 2 -> {
+                    operations[i] = TransactionBatch.insert(1000, 100);
+                    expected.insertCoin(1000, 100);
+                }
+                case 3 -> {
+                    Product product = Product.values()[random.nextInt(Product.values().length)];
+                    operations[i] = TransactionBatch.select(product);
+                    expected.selectProduct(product);
+                }
+                case 4 -> {
+                    operations[i] = TransactionBatch.takeChange();
+                    expected.takeChange();
+                }
+                default -> {
+                    operations[i] = TransactionBatch.returnCoins();
+                    expected.returnCoins();
+                }
+            }
+        }
+
+        VendingMachine actual = stockedMachine();
+        TransactionBatch.apply(actual, operations);
+
+        assertAll(
+                () -> assertEquals(expected.getProducts(), actual.getProducts()),
+                () -> assertEquals(expected.getMachineCoins(), actual.getMachineCoins()),
+                () -> assertEquals(expected.getChangeTray(), actual.getChangeTray()),
+                () -> assertEquals(expected.getInsertedValue(), actual.getInsertedValue())
+        );
+    }
+
+    VendingMachine stockedMachine() {
+        VendingMachine machine = new VendingMachine();
+        machine.getMachineCoins().put(Coin.QUARTER, 10);
+        machine.getMachineCoins().put(Coin.DIME, 10);
+        machine.getMachineCoins().put(Coin.NICKEL, 10);
+        machine.getProducts().put(Product.COLA, 100);
+        machine.getProducts().put(Product.CANDY, 100);
+        machine.getProducts().put(Product.CHIPS, 100);
+        return machine;
+    }
+}
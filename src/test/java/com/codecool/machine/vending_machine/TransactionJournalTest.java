@@ -0,0 +1,208 @@
+package com.codecool.machine.vending_machine;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionJournalTest {
+    @TempDir
+    Path directory;
+
+    VendingMachine machine;
+
+    @BeforeEach
+    void init() {
+        machine = new VendingMachine();
+    }
+
+    @Test
+    void should_startEmptyWithoutJournal() throws Exception {
+        try (TransactionJournal journal = TransactionJournal.open(directory, machine)) {
+            assertFalse(journal.isRecovered());
+        }
+    }
+
+    @Test
+    void should_recoverLedgersFromSnapshotAndTail() throws Exception {
+        TransactionJournal journal = TransactionJournal.open(directory, machine);
+        stock(machine);
+        journal.snapshot();
+
+        insertQuarters(3);
+        machine.insertCoin(600, 40);
+        machine.selectProduct(Product.CHIPS);
+        machine.takeProduct();
+        insertQuarters(1);
+        machine.returnCoins();
+        insertQuarters(2);
+        journal.close();
+
+        VendingMachine recovered = new VendingMachine();
+        try (TransactionJournal reopened = TransactionJournal.open(directory, recovered)) {
+            assertTrue(reopened.isRecovered());
+        }
+        assertSameLedgers(machine, recovered);
+    }
+
+    @Test
+    void should_recoverRestocksMadeAfterSnapshot() throws Exception {
+        TransactionJournal journal = TransactionJournal.open(directory, machine);
+        stock(machine);
+        journal.snapshot();
+
+        insertQuarters(2);
+        machine.selectProduct(Product.CHIPS);
+        machine.getProducts().put(Product.CHIPS, 40);
+        machine.getMachineCoins().put(Coin.DIME, 12);
+        machine.stockProduct(machine.productId(Product.COLA), 7);
+        journal.close();
+
+        VendingMachine recovered = new VendingMachine();
+        TransactionJournal.open(directory, recovered).close();
+        assertAll(
+                () -> assertEquals(40, recovered.getProducts().get(Product.CHIPS)),
+                () -> assertEquals(12, recovered.getMachineCoins().get(Coin.DIME)),
+                () -> assertEquals(7, recovered.getProducts().get(Product.COLA))
+        );
+        assertSameLedgers(machine, recovered);
+    }
+
+    @Test
+    void should_notSnapshotInsideSale() throws Exception {
+        TransactionJournal journal = TransactionJournal.open(directory, machine, 1024, 6);
+        machine.getMachineCoins().put(Coin.QUARTER, 10);
+        machine.getProducts().put(Product.CHIPS, 10);
+        insertQuarters(3);
+        machine.selectProduct(Product.CHIPS);
+        journal.close();
+
+        VendingMachine recovered = new VendingMachine();
+        TransactionJournal.open(directory, recovered).close();
+        assertAll(
+                () -> assertEquals(12, recovered.getMachineCoins().get(Coin.QUARTER)),
+                () -> assertEquals(1, recovered.getChangeTray().get(Coin.QUARTER)),
+                () -> assertSameLedgers(machine, recovered)
+        );
+    }
+
+    @Test
+    void should_notSnapshotInsideCart() throws Exception {
+        TransactionJournal journal = TransactionJournal.open(directory, machine, 1024, 8);
+        machine.getMachineCoins().put(Coin.QUARTER, 10);
+        machine.getProducts().put(Product.CHIPS, 10);
+        insertQuarters(5);
+        machine.selectProducts(new Cart().add(Product.CHIPS).add(Product.CHIPS));
+        journal.close();
+
+        VendingMachine recovered = new VendingMachine();
+        TransactionJournal.open(directory, recovered).close();
+        assertAll(
+                () -> assertEquals(8, recovered.getProducts().get(Product.CHIPS)),
+                () -> assertEquals(14, recovered.getMachineCoins().get(Coin.QUARTER)),
+                () -> assertEquals(1, recovered.getChangeTray().get(Coin.QUARTER)),
+                () -> assertSameLedgers(machine, recovered)
+        );
+    }
+
+    @Test
+    void should_replayWithoutNotifyingListeners() throws Exception {
+        TransactionJournal journal = TransactionJournal.open(directory, machine);
+        stock(machine);
+        insertQuarters(3);
+        machine.selectProduct(Product.CHIPS);
+        machine.takeProduct();
+        machine.takeChange();
+        insertQuarters(1);
+        machine.returnCoins();
+        journal.close();
+
+        VendingMachine recovered = new VendingMachine();
+        int[] events = new int[1];
+        recovered.addListener(new MachineListener() {
+            @Override
+            public void coinsReturned() {
+                events[0]++;
+            }
+
+            @Override
+            public void changeTaken() {
+                events[0]++;
+            }
+
+            @Override
+            public void productTaken() {
+                events[0]++;
+            }
+
+            @Override
+            public void stateChanged(MachineState from, MachineState to) {
+                events[0]++;
+            }
+
+            @Override
+            public void productStocked(int product, int count) {
+                events[0]++;
+            }
+
+            @Override
+            public void coinsStocked(int coin, int count) {
+                events[0]++;
+            }
+        });
+        TransactionJournal.open(directory, recovered).close();
+
+        assertAll(
+                () -> assertEquals(0, events[0]),
+                () -> assertSameLedgers(machine, recovered)
+        );
+    }
+
+    @Test
+    void should_recoverMillionEventsQuickly() throws Exception {
+        TransactionJournal journal = TransactionJournal.open(directory, machine, 1024, Integer.MAX_VALUE);
+        stock(machine);
+        journal.snapshot();
+        for (int i = 0; i < 250_000; i++) {
+            insertQuarters(3);
+            machine.selectProduct(Product.CHIPS);
+            machine.takeProduct();
+        }
+        journal.close();
+
+        VendingMachine recovered = new VendingMachine();
+        assertTimeoutPreemptively(Duration.ofSeconds(1),
+                () -> TransactionJournal.open(directory, recovered).close());
+        assertSameLedgers(machine, recovered);
+    }
+
+    void stock(VendingMachine machine) {
+        machine.getMachineCoins().put(Coin.QUARTER, 1_000_000);
+        machine.getProducts().put(Product.CHIPS, 1_000_000);
+    }
+
+    void insertQuarters(int quantity) {
+        for (int i = 0; i < quantity; i++) {
+            machine.insertCoin(2500, 250);
+        }
+    }
+
+    void assertSameLedgers(VendingMachine expected, VendingMachine actual) {
+        assertAll(
+                () -> assertEquals(expected.getProducts(), actual.getProducts()),
+                () -> assertEquals(expected.getProductTray(), actual.getProductTray()),
+                () -> assertEquals(expected.getMachineCoins(), actual.getMachineCoins()),
+                () -> assertEquals(expected.getInsertedCoins(), actual.getInsertedCoins()),
+                () -> assertEquals(expected.getChangeTray(), actual.getChangeTray()),
+                () -> assertEquals(expected.getInsertedValue(), actual.getInsertedValue())
+        );
+    }
+}
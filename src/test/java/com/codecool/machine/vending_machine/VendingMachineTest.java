@@ -119,6 +119,35 @@ class VendingMachineTest {
         );
     }
 
+    @Test
+    void should_sellNewProductForNewCoinsOfLoadedCatalog() {
+        Catalog catalog = Catalog.parse("coin PESO 100 4000 300 20 5\ncoin CENTAVO 50 2000 200 10 3\n"
+                + "product MANGO 150 1\n");
+        int peso = catalog.coinId("PESO");
+        int centavo = catalog.coinId("CENTAVO");
+        int mango = catalog.productId("MANGO");
+        VendingMachine pesoMachine = new VendingMachine(catalog);
+        pesoMachine.stockProduct(mango, 1);
+        pesoMachine.stockCoins(centavo, 2);
+
+        pesoMachine.insertCoin(4010, 302);
+        pesoMachine.insertCoin(3990, 298);
+        pesoMachine.insertCoin(2500, 250);
+        pesoMachine.selectProduct(mango);
+
+        assertAll(
+                () -> assertEquals(MachineState.PRODUCT_BOUGHT, pesoMachine.getState()),
+                () -> assertEquals(1, pesoMachine.productTrayCount(mango)),
+                () -> assertEquals(0, pesoMachine.productCount(mango)),
+                () -> assertEquals(2, pesoMachine.coinCount(peso)),
+                () -> assertEquals(1, pesoMachine.coinCount(centavo)),
+                () -> assertEquals(1, pesoMachine.changeTrayCount(centavo)),
+                () -> assertEquals(1, pesoMachine.rejectedCoins()),
+                () -> assertEquals(0, pesoMachine.getQuarters()),
+                () -> assertEquals(Map.of(), pesoMachine.getProducts())
+        );
+    }
+
     void setMachineMoney(int quarters, int dimes, int nickels) {
         Map<Coin, Integer> coins = machine.getMachineCoins();
         coins.put(Coin.QUARTER, quarters);